@@ -0,0 +1,103 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import core.Settings;
+
+/**
+ * Policy deciding from which partition of a
+ * <code>ResourceManagementBuffer</code> messages are dropped when the buffer
+ * is full. The buffer always drops the oldest message of the selected
+ * partition.
+ * 
+ * The policy is chosen with the <code>evictionPolicy</code> setting of the
+ * application (see {@link ResourceManagementApplication#EVICTION_POLICY}).
+ * Like other modules of the ONE, a policy is created with a constructor that
+ * takes the application's <code>Settings</code> object as its only parameter
+ * and every buffer gets its own replicate of it.
+ * 
+ * The buffer informs the policy about every added and removed message, so
+ * policies keep their state up to date incrementally and do not need to scan
+ * the partitions when a message has to be dropped.
+ * 
+ * @see ResourceManagementBuffer
+ * @author Dominik Schürmann
+ */
+public abstract class BufferEvictionPolicy {
+
+    /** Partition ID returned if there is no partition to drop from */
+    public static final int NO_PARTITION = -1;
+
+    /**
+     * Constructor
+     * 
+     * @param s
+     *            Settings of the application
+     */
+    public BufferEvictionPolicy(Settings s) {
+    }
+
+    /**
+     * Copy constructor
+     * 
+     * @param proto
+     *            prototype
+     */
+    protected BufferEvictionPolicy(BufferEvictionPolicy proto) {
+    }
+
+    /**
+     * Called once on the prototype after the application has been initialized,
+     * before any replicate is made. Policies that need to know about the
+     * application, e.g., which nodes are servers, can override this.
+     * 
+     * @param app
+     *            the application prototype
+     */
+    public void init(ResourceManagementApplication app) {
+    }
+
+    /**
+     * A message has been added to a partition
+     * 
+     * @param partitionID
+     * @param size
+     *            size of the message in bytes
+     */
+    public abstract void messageAdded(int partitionID, int size);
+
+    /**
+     * A message has been removed from a partition
+     * 
+     * @param partitionID
+     * @param size
+     *            size of the message in bytes
+     * @param dropped
+     *            true if the message was dropped because the partition was
+     *            selected by this policy, false if it was deleted otherwise
+     *            (e.g., delivered or expired)
+     */
+    public abstract void messageRemoved(int partitionID, int size,
+            boolean dropped);
+
+    /**
+     * Selects the partition to drop the next message from
+     * 
+     * @param excludedPartitionID
+     *            partition that must not be selected, because it has no
+     *            message that can be dropped, or NO_PARTITION
+     * @return partition ID or NO_PARTITION if no partition can be selected
+     */
+    public abstract int selectPartition(int excludedPartitionID);
+
+    /**
+     * Creates a replicate of this policy for a new buffer
+     * 
+     * @return the replicate
+     */
+    public abstract BufferEvictionPolicy replicate();
+
+}
@@ -0,0 +1,132 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import core.Message;
+
+/**
+ * A partition of the <code>ResourceManagementBuffer</code>. Messages are kept
+ * in the order they have been added, which is the order of their receive
+ * times, because messages are buffered at the moment they are received or
+ * created. The oldest message is thus always at the head of the partition and
+ * messages can be removed by their ID in constant time.
+ * 
+ * @see ResourceManagementBuffer
+ * @author Dominik Schürmann
+ */
+public class BufferPartition {
+
+    /** messages of this partition by ID, oldest first */
+    private LinkedHashMap<String, Message> messages;
+    /** sum of the sizes of all messages in bytes */
+    private int usage;
+
+    /**
+     * Constructor. Creates an empty partition.
+     */
+    public BufferPartition() {
+        this.messages = new LinkedHashMap<String, Message>();
+        this.usage = 0;
+    }
+
+    /**
+     * Adds message as the newest message of this partition
+     * 
+     * @param msg
+     * @return true if the message was added, false if the partition already
+     *         contains a message with the same ID
+     */
+    public boolean add(Message msg) {
+        if (messages.containsKey(msg.getId())) {
+            return false;
+        }
+        messages.put(msg.getId(), msg);
+        usage += msg.getSize();
+
+        return true;
+    }
+
+    /**
+     * Removes message by ID
+     * 
+     * @param messageID
+     * @return the removed message or null if it was not in this partition
+     */
+    public Message remove(String messageID) {
+        Message msg = messages.remove(messageID);
+        if (msg != null) {
+            usage -= msg.getSize();
+        }
+        return msg;
+    }
+
+    /**
+     * Returns true if the partition contains a message with this ID
+     * 
+     * @param messageID
+     * @return true if the message is in this partition
+     */
+    public boolean contains(String messageID) {
+        return messages.containsKey(messageID);
+    }
+
+    /**
+     * Returns the oldest (by receive time) message of this partition
+     * 
+     * @param excludeMessage
+     *            message that must not be returned, e.g., the new message
+     *            that is currently added
+     * @return The oldest message or null if there is no other message than
+     *         excludeMessage
+     */
+    public Message getOldestMessage(Message excludeMessage) {
+        Iterator<Message> it = messages.values().iterator();
+        while (it.hasNext()) {
+            Message m = it.next();
+            if (m != excludeMessage) {
+                return m;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the number of messages in this partition
+     * 
+     * @return number of messages
+     */
+    public int size() {
+        return messages.size();
+    }
+
+    /**
+     * Returns the sum of the sizes of all messages in this partition
+     * 
+     * @return usage in bytes
+     */
+    public int getUsage() {
+        return usage;
+    }
+
+    /**
+     * Returns true if this partition contains no messages
+     * 
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return messages.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return messages.values().toString();
+    }
+
+}
@@ -0,0 +1,138 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.util.Arrays;
+
+import core.Settings;
+import core.SettingsError;
+
+/**
+ * Deficit round robin eviction: non-empty partitions take turns in a ring.
+ * When it is the turn of a partition, it gets a quantum of bytes added to its
+ * deficit and messages are dropped from it until its deficit is used up, then
+ * the turn goes to the next partition. Every partition thus loses about the
+ * same number of bytes, independent of the sizes of its messages.
+ * 
+ * Partitions that become empty leave the ring and lose their deficit,
+ * partitions that get their first message join at the end of the current
+ * round. With a quantum at least as large as most messages, selecting a
+ * partition costs amortized O(1).
+ * 
+ * @see PartitionRing
+ * @author Dominik Schürmann
+ */
+public class DeficitRoundRobinEvictionPolicy extends BufferEvictionPolicy {
+
+    /** Bytes added to the deficit of a partition per turn (must be positive) */
+    public static final String QUANTUM = "drrQuantum";
+    /** Default quantum (100 kB) */
+    public static final int DEFAULT_QUANTUM = 102400;
+
+    private int quantum = DEFAULT_QUANTUM;
+
+    /** non-empty partitions, the head has the current turn */
+    private PartitionRing ring;
+    /** number of messages by partition ID */
+    private int[] messageCounts;
+    /** deficit in bytes by partition ID */
+    private long[] deficits;
+
+    /**
+     * Constructor
+     * 
+     * @param s
+     *            Settings of the application
+     */
+    public DeficitRoundRobinEvictionPolicy(Settings s) {
+        super(s);
+        if (s.contains(QUANTUM)) {
+            this.quantum = s.getInt(QUANTUM);
+            if (this.quantum <= 0) {
+                throw new SettingsError("Quantum must be positive: "
+                        + s.getFullPropertyName(QUANTUM));
+            }
+        }
+        init();
+    }
+
+    /**
+     * Copy constructor
+     * 
+     * @param proto
+     *            prototype
+     */
+    protected DeficitRoundRobinEvictionPolicy(
+            DeficitRoundRobinEvictionPolicy proto) {
+        super(proto);
+        this.quantum = proto.quantum;
+        init();
+    }
+
+    private void init() {
+        this.ring = new PartitionRing();
+        this.messageCounts = new int[8];
+        this.deficits = new long[8];
+    }
+
+    @Override
+    public void messageAdded(int partitionID, int size) {
+        if (partitionID >= messageCounts.length) {
+            int newLength = Math.max(partitionID + 1, messageCounts.length * 2);
+            messageCounts = Arrays.copyOf(messageCounts, newLength);
+            deficits = Arrays.copyOf(deficits, newLength);
+        }
+        if (messageCounts[partitionID]++ == 0) {
+            ring.addLast(partitionID);
+        }
+    }
+
+    @Override
+    public void messageRemoved(int partitionID, int size, boolean dropped) {
+        if (dropped) {
+            deficits[partitionID] -= size;
+        }
+        if (--messageCounts[partitionID] == 0) {
+            ring.remove(partitionID);
+            deficits[partitionID] = 0;
+        } else if (dropped && deficits[partitionID] <= 0
+                && ring.getHead() == partitionID) {
+            // deficit used up, turn of the next partition
+            ring.rotate();
+        }
+    }
+
+    @Override
+    public int selectPartition(int excludedPartitionID) {
+        if (ring.isEmpty()) {
+            return NO_PARTITION;
+        }
+        if (ring.size() == 1 && ring.getHead() == excludedPartitionID) {
+            return NO_PARTITION;
+        }
+
+        while (true) {
+            int partitionID = ring.getHead();
+            if (partitionID != excludedPartitionID) {
+                if (deficits[partitionID] > 0) {
+                    return partitionID;
+                }
+                // new turn of this partition
+                deficits[partitionID] += quantum;
+                if (deficits[partitionID] > 0) {
+                    return partitionID;
+                }
+            }
+            ring.rotate();
+        }
+    }
+
+    @Override
+    public BufferEvictionPolicy replicate() {
+        return new DeficitRoundRobinEvictionPolicy(this);
+    }
+
+}
@@ -0,0 +1,170 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.util.Arrays;
+
+import core.Settings;
+import core.SettingsError;
+
+/**
+ * Hierarchical fair share eviction over domains and source partitions. The
+ * partitions of the buffer (source nodes) are grouped into domains by a
+ * <code>DomainMap</code>. Messages are dropped from the domain that exceeds
+ * its share of the buffer the most and within that domain from the partition
+ * with the highest usage.
+ * 
+ * The usage of every domain is the sum of the usages of its partitions and is
+ * updated incrementally on every added and removed message. Domain usages
+ * scaled by their shares and the partition usages of every domain are kept in
+ * <code>PartitionUsageHeap</code>s, so every added or removed message costs
+ * O(log D + log P) and selecting a partition O(1).
+ * 
+ * @see DomainMap
+ * @see PartitionUsageHeap
+ * @author Dominik Schürmann
+ */
+public class DomainFairShareEvictionPolicy extends BufferEvictionPolicy {
+
+    /**
+     * Shares of the domains - relative quota of every domain, ordered by
+     * domain ID. Domains without share get the share 1.
+     */
+    public static final String DOMAIN_SHARES = "domainShares";
+
+    private DomainMap domainMap;
+    /** share by domain */
+    private int[] shares;
+    /** largest share, used to scale usages to integers */
+    private long maxShare;
+
+    /** usage in bytes by domain */
+    private long[] domainUsages;
+    /** usages of the domains scaled by their shares */
+    private PartitionUsageHeap domainHeap;
+    /** partition usages by domain, created on demand */
+    private PartitionUsageHeap[] partitionHeaps;
+
+    /**
+     * Constructor
+     * 
+     * @param s
+     *            Settings of the application
+     */
+    public DomainFairShareEvictionPolicy(Settings s) {
+        super(s);
+        this.domainMap = new DomainMap(s);
+
+        this.shares = new int[domainMap.getNrofDomains()];
+        Arrays.fill(this.shares, 1);
+        if (s.contains(DOMAIN_SHARES)) {
+            int[] settingShares = s.getCsvInts(DOMAIN_SHARES);
+            int n = Math.min(settingShares.length, shares.length);
+            for (int i = 0; i < n; i++) {
+                if (settingShares[i] <= 0) {
+                    throw new SettingsError("Domain shares must be positive: "
+                            + s.getFullPropertyName(DOMAIN_SHARES));
+                }
+                shares[i] = settingShares[i];
+            }
+        }
+        init();
+    }
+
+    /**
+     * Copy constructor
+     * 
+     * @param proto
+     *            prototype
+     */
+    protected DomainFairShareEvictionPolicy(
+            DomainFairShareEvictionPolicy proto) {
+        super(proto);
+        this.domainMap = proto.domainMap;
+        this.shares = proto.shares;
+        init();
+    }
+
+    private void init() {
+        this.maxShare = 1;
+        for (int share : shares) {
+            this.maxShare = Math.max(this.maxShare, share);
+        }
+        this.domainUsages = new long[shares.length];
+        this.domainHeap = new PartitionUsageHeap();
+        this.partitionHeaps = new PartitionUsageHeap[shares.length];
+    }
+
+    /**
+     * Returns the domain map of this policy
+     * 
+     * @return domain map
+     */
+    public DomainMap getDomainMap() {
+        return domainMap;
+    }
+
+    @Override
+    public void messageAdded(int partitionID, int size) {
+        int domain = domainMap.getDomain(partitionID);
+        if (partitionHeaps[domain] == null) {
+            partitionHeaps[domain] = new PartitionUsageHeap();
+        }
+        partitionHeaps[domain].addUsage(partitionID, size);
+        addDomainUsage(domain, size);
+    }
+
+    @Override
+    public void messageRemoved(int partitionID, int size, boolean dropped) {
+        int domain = domainMap.getDomain(partitionID);
+        partitionHeaps[domain].addUsage(partitionID, -size);
+        addDomainUsage(domain, -size);
+    }
+
+    /**
+     * Updates the usage of a domain and its key in the domain heap. The key
+     * is computed from the absolute usage, so there are no rounding errors
+     * accumulating.
+     */
+    private void addDomainUsage(int domain, long delta) {
+        domainUsages[domain] += delta;
+        long key = domainUsages[domain] * maxShare / shares[domain];
+        domainHeap.addUsage(domain, key - domainHeap.getUsage(domain));
+    }
+
+    @Override
+    public int selectPartition(int excludedPartitionID) {
+        int domain = domainHeap.getHighest();
+        if (domain == NO_PARTITION) {
+            return NO_PARTITION;
+        }
+
+        PartitionUsageHeap partitions = partitionHeaps[domain];
+        int highest = partitions.getHighest();
+        if (highest != excludedPartitionID) {
+            return highest;
+        }
+
+        // take second highest partition of the same domain
+        int second = partitions.getSecondHighest();
+        if (second != NO_PARTITION && partitions.getUsage(second) > 0) {
+            return second;
+        }
+
+        // domain has nothing else to drop, take next domain
+        int secondDomain = domainHeap.getSecondHighest();
+        if (secondDomain == NO_PARTITION || domainUsages[secondDomain] == 0) {
+            return NO_PARTITION;
+        }
+        return partitionHeaps[secondDomain].getHighest();
+    }
+
+    @Override
+    public BufferEvictionPolicy replicate() {
+        return new DomainFairShareEvictionPolicy(this);
+    }
+
+}
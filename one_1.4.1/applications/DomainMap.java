@@ -0,0 +1,170 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Scanner;
+
+import core.Settings;
+import core.SettingsError;
+
+/**
+ * Maps node addresses to domains, e.g., organizations. Domains are numbered
+ * from 0 and the domain of every address is stored in a primitive array
+ * indexed by address.
+ * 
+ * Domains are defined either by address ranges (setting
+ * <code>domainRanges</code>) or by a mapping file (setting
+ * <code>domainFile</code>). Addresses that are not covered belong to an extra
+ * default domain, which has the highest domain ID.
+ * 
+ * @see DomainFairShareEvictionPolicy
+ * @author Dominik Schürmann
+ */
+public class DomainMap {
+
+    /**
+     * Domain address ranges - ascending addresses, domain i consists of the
+     * addresses from the i-th (inclusive) to the (i+1)-th (exclusive) address.
+     * E.g., <code>0,100,200</code> defines the domains 0-99 and 100-199.
+     */
+    public static final String DOMAIN_RANGES = "domainRanges";
+
+    /**
+     * Domain mapping file - every line contains an address and its domain ID,
+     * separated by whitespace. Empty lines and lines starting with # are
+     * ignored.
+     */
+    public static final String DOMAIN_FILE = "domainFile";
+
+    /** domain by address */
+    private int[] domains;
+    /** number of domains, including the default domain */
+    private int nrofDomains;
+
+    /**
+     * Creates a domain map from the settings. If no domains are defined, all
+     * addresses belong to the default domain 0.
+     * 
+     * @param s
+     *            Settings of the application
+     */
+    public DomainMap(Settings s) {
+        if (s.contains(DOMAIN_FILE)) {
+            readDomainFile(s.getSetting(DOMAIN_FILE));
+        } else if (s.contains(DOMAIN_RANGES)) {
+            setRanges(s.getCsvInts(DOMAIN_RANGES));
+        } else {
+            this.domains = new int[0];
+            this.nrofDomains = 1;
+        }
+    }
+
+    private void setRanges(int[] ranges) {
+        int configured = Math.max(ranges.length - 1, 0);
+        this.nrofDomains = configured + 1;
+        this.domains = new int[ranges.length > 0 ? ranges[ranges.length - 1]
+                : 0];
+        Arrays.fill(this.domains, configured);
+
+        for (int i = 0; i < configured; i++) {
+            if (ranges[i] < 0 || ranges[i] > ranges[i + 1]) {
+                throw new SettingsError("Invalid domain ranges "
+                        + Arrays.toString(ranges));
+            }
+            Arrays.fill(this.domains, ranges[i], ranges[i + 1], i);
+        }
+    }
+
+    private void readDomainFile(String fileName) {
+        this.domains = new int[0];
+        int configured = 0;
+        BufferedReader reader = null;
+
+        try {
+            reader = new BufferedReader(new FileReader(fileName));
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+
+                Scanner lineScan = new Scanner(line);
+                if (!lineScan.hasNextInt()) {
+                    throw new SettingsError("Invalid address on line "
+                            + lineNumber + " of domain file " + fileName);
+                }
+                int address = lineScan.nextInt();
+                if (!lineScan.hasNextInt()) {
+                    throw new SettingsError("Invalid domain on line "
+                            + lineNumber + " of domain file " + fileName);
+                }
+                int domain = lineScan.nextInt();
+                if (address < 0 || domain < 0) {
+                    throw new SettingsError("Negative value on line "
+                            + lineNumber + " of domain file " + fileName);
+                }
+
+                if (address >= domains.length) {
+                    int oldLength = domains.length;
+                    domains = Arrays.copyOf(domains,
+                            Math.max(address + 1, oldLength * 2));
+                    Arrays.fill(domains, oldLength, domains.length, -1);
+                }
+                domains[address] = domain;
+                configured = Math.max(configured, domain + 1);
+            }
+        } catch (IOException ioe) {
+            throw new SettingsError("Couldn't read domain file '" + fileName
+                    + "' (cause: " + ioe.getMessage() + ")");
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+
+        // unmapped addresses belong to the default domain
+        this.nrofDomains = configured + 1;
+        for (int i = 0; i < domains.length; i++) {
+            if (domains[i] < 0) {
+                domains[i] = configured;
+            }
+        }
+    }
+
+    /**
+     * Returns the domain of an address
+     * 
+     * @param address
+     * @return domain ID
+     */
+    public int getDomain(int address) {
+        if (address < domains.length) {
+            return domains[address];
+        }
+        return nrofDomains - 1;
+    }
+
+    /**
+     * Returns the number of domains, including the default domain
+     * 
+     * @return number of domains
+     */
+    public int getNrofDomains() {
+        return nrofDomains;
+    }
+
+}
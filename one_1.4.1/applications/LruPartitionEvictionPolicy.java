@@ -0,0 +1,89 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.util.Arrays;
+
+import core.Settings;
+
+/**
+ * LRU by partition eviction: messages are dropped from the partition that has
+ * least recently received a message. Partitions are kept in a
+ * <code>PartitionRing</code> ordered by their last added message, so every
+ * operation costs O(1).
+ * 
+ * @see PartitionRing
+ * @author Dominik Schürmann
+ */
+public class LruPartitionEvictionPolicy extends BufferEvictionPolicy {
+
+    /** non-empty partitions, least recently used first */
+    private PartitionRing ring;
+    /** number of messages by partition ID */
+    private int[] messageCounts;
+
+    /**
+     * Constructor
+     * 
+     * @param s
+     *            Settings of the application
+     */
+    public LruPartitionEvictionPolicy(Settings s) {
+        super(s);
+        init();
+    }
+
+    /**
+     * Copy constructor
+     * 
+     * @param proto
+     *            prototype
+     */
+    protected LruPartitionEvictionPolicy(LruPartitionEvictionPolicy proto) {
+        super(proto);
+        init();
+    }
+
+    private void init() {
+        this.ring = new PartitionRing();
+        this.messageCounts = new int[8];
+    }
+
+    @Override
+    public void messageAdded(int partitionID, int size) {
+        if (partitionID >= messageCounts.length) {
+            messageCounts = Arrays.copyOf(messageCounts,
+                    Math.max(partitionID + 1, messageCounts.length * 2));
+        }
+        messageCounts[partitionID]++;
+        ring.moveToLast(partitionID);
+    }
+
+    @Override
+    public void messageRemoved(int partitionID, int size, boolean dropped) {
+        if (--messageCounts[partitionID] == 0) {
+            ring.remove(partitionID);
+        }
+    }
+
+    @Override
+    public int selectPartition(int excludedPartitionID) {
+        int lru = ring.getHead();
+        if (lru != excludedPartitionID) {
+            return lru;
+        }
+        if (ring.size() < 2) {
+            return NO_PARTITION;
+        }
+        return ring.getNext(lru);
+    }
+
+    @Override
+    public BufferEvictionPolicy replicate() {
+        return new LruPartitionEvictionPolicy(this);
+    }
+
+}
@@ -0,0 +1,87 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import core.Settings;
+
+/**
+ * Max-min fair share eviction: messages are dropped from the partition with
+ * the highest usage. Repeatedly taking from the largest partition converges
+ * to the max-min fair allocation of the buffer, i.e., small partitions are
+ * never reduced while a larger one exists. This is the default policy.
+ * 
+ * Usages are kept in a <code>PartitionUsageHeap</code>, so every added or
+ * removed message costs O(log P) and selecting a partition O(1).
+ * 
+ * @see PartitionUsageHeap
+ * @author Dominik Schürmann
+ */
+public class MaxMinFairShareEvictionPolicy extends BufferEvictionPolicy {
+
+    /** (scaled) usage of all partitions */
+    protected PartitionUsageHeap partitionUsage;
+
+    /**
+     * Constructor
+     * 
+     * @param s
+     *            Settings of the application
+     */
+    public MaxMinFairShareEvictionPolicy(Settings s) {
+        super(s);
+        this.partitionUsage = new PartitionUsageHeap();
+    }
+
+    /**
+     * Copy constructor
+     * 
+     * @param proto
+     *            prototype
+     */
+    protected MaxMinFairShareEvictionPolicy(
+            MaxMinFairShareEvictionPolicy proto) {
+        super(proto);
+        this.partitionUsage = new PartitionUsageHeap();
+    }
+
+    /**
+     * Returns the factor the usage of a partition is multiplied with before it
+     * is compared to other partitions. All partitions are equal here.
+     * 
+     * @param partitionID
+     * @return scale factor
+     */
+    protected long getScale(int partitionID) {
+        return 1;
+    }
+
+    @Override
+    public void messageAdded(int partitionID, int size) {
+        partitionUsage.addUsage(partitionID, size * getScale(partitionID));
+    }
+
+    @Override
+    public void messageRemoved(int partitionID, int size, boolean dropped) {
+        partitionUsage.addUsage(partitionID, -size * getScale(partitionID));
+    }
+
+    @Override
+    public int selectPartition(int excludedPartitionID) {
+        int highest = partitionUsage.getHighest();
+        if (highest != excludedPartitionID) {
+            return highest;
+        }
+
+        // take second highest partition
+        return partitionUsage.getSecondHighest();
+    }
+
+    @Override
+    public BufferEvictionPolicy replicate() {
+        return new MaxMinFairShareEvictionPolicy(this);
+    }
+
+}
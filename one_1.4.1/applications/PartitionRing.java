@@ -0,0 +1,178 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.util.Arrays;
+
+/**
+ * Circular doubly linked list of partition IDs. Like in
+ * <code>PartitionUsageHeap</code>, partitions are non-negative integer IDs and
+ * the links are stored in primitive arrays indexed by that ID, so adding,
+ * removing and moving partitions cost O(1).
+ * 
+ * The head is the first partition of the ring, the partition before the head
+ * is the last one.
+ * 
+ * @see PartitionUsageHeap
+ * @author Dominik Schürmann
+ */
+public class PartitionRing {
+
+    /** Link value for partitions that are not in the ring */
+    public static final int NO_PARTITION = -1;
+
+    /** next partition by partition ID or NO_PARTITION */
+    private int[] next;
+    /** previous partition by partition ID or NO_PARTITION */
+    private int[] prev;
+    private int head;
+    private int size;
+
+    /**
+     * Constructor. Creates an empty ring.
+     */
+    public PartitionRing() {
+        this.next = new int[8];
+        this.prev = new int[8];
+        Arrays.fill(this.next, NO_PARTITION);
+        Arrays.fill(this.prev, NO_PARTITION);
+        this.head = NO_PARTITION;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of partitions in the ring
+     * 
+     * @return number of partitions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the ring contains no partitions
+     * 
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if the partition is in the ring
+     * 
+     * @param partitionID
+     * @return true if the partition is in the ring
+     */
+    public boolean contains(int partitionID) {
+        return partitionID < next.length && next[partitionID] != NO_PARTITION;
+    }
+
+    /**
+     * Returns the first partition of the ring
+     * 
+     * @return partition ID or NO_PARTITION if the ring is empty
+     */
+    public int getHead() {
+        return head;
+    }
+
+    /**
+     * Returns the partition following the given partition. The partition
+     * following the last one is the head.
+     * 
+     * @param partitionID
+     *            partition in the ring
+     * @return partition ID
+     */
+    public int getNext(int partitionID) {
+        return next[partitionID];
+    }
+
+    /**
+     * Adds a partition as the last partition of the ring, i.e., before the
+     * head. Does nothing if the partition is already in the ring.
+     * 
+     * @param partitionID
+     */
+    public void addLast(int partitionID) {
+        if (contains(partitionID)) {
+            return;
+        }
+        if (partitionID >= next.length) {
+            int oldLength = next.length;
+            int newLength = Math.max(partitionID + 1, oldLength * 2);
+            next = Arrays.copyOf(next, newLength);
+            prev = Arrays.copyOf(prev, newLength);
+            Arrays.fill(next, oldLength, newLength, NO_PARTITION);
+            Arrays.fill(prev, oldLength, newLength, NO_PARTITION);
+        }
+
+        if (head == NO_PARTITION) {
+            next[partitionID] = partitionID;
+            prev[partitionID] = partitionID;
+            head = partitionID;
+        } else {
+            int last = prev[head];
+            next[last] = partitionID;
+            prev[partitionID] = last;
+            next[partitionID] = head;
+            prev[head] = partitionID;
+        }
+        size++;
+    }
+
+    /**
+     * Removes a partition from the ring. If it was the head, the following
+     * partition becomes the head.
+     * 
+     * @param partitionID
+     */
+    public void remove(int partitionID) {
+        if (!contains(partitionID)) {
+            return;
+        }
+        if (size == 1) {
+            head = NO_PARTITION;
+        } else {
+            next[prev[partitionID]] = next[partitionID];
+            prev[next[partitionID]] = prev[partitionID];
+            if (head == partitionID) {
+                head = next[partitionID];
+            }
+        }
+        next[partitionID] = NO_PARTITION;
+        prev[partitionID] = NO_PARTITION;
+        size--;
+    }
+
+    /**
+     * Moves a partition to the end of the ring, adds it if it is not in the
+     * ring
+     * 
+     * @param partitionID
+     */
+    public void moveToLast(int partitionID) {
+        if (head == partitionID) {
+            // the head becomes the last partition by rotating
+            rotate();
+            return;
+        }
+        remove(partitionID);
+        addLast(partitionID);
+    }
+
+    /**
+     * Makes the partition following the head the new head, the old head
+     * becomes the last partition
+     */
+    public void rotate() {
+        if (head != NO_PARTITION) {
+            head = next[head];
+        }
+    }
+
+}
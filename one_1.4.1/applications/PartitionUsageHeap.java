@@ -0,0 +1,223 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary max-heap of partition usages. Partitions are identified by
+ * non-negative integer IDs (node addresses) and the heap position of every
+ * partition is stored in a primitive array indexed by that ID, so changing the
+ * usage of a partition and looking up the highest partitions cost O(log P) and
+ * O(1) respectively.
+ * 
+ * Ties are broken by the partition ID, the lower ID is considered higher.
+ * 
+ * @see ResourceManagementBuffer
+ * @author Dominik Schürmann
+ */
+public class PartitionUsageHeap {
+
+    /** Position value for partitions that are not in the heap */
+    private static final int NOT_IN_HEAP = -1;
+
+    /** partition IDs in heap order */
+    private int[] heap;
+    /** usage of the partition at the same heap index */
+    private long[] usage;
+    /** heap index of every partition ID or NOT_IN_HEAP */
+    private int[] position;
+    private int size;
+
+    /**
+     * Constructor. Creates an empty heap.
+     */
+    public PartitionUsageHeap() {
+        this.heap = new int[8];
+        this.usage = new long[8];
+        this.position = new int[8];
+        Arrays.fill(this.position, NOT_IN_HEAP);
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of partitions in the heap
+     * 
+     * @return number of partitions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the partition is in the heap
+     * 
+     * @param partitionID
+     * @return true if the partition is in the heap
+     */
+    public boolean contains(int partitionID) {
+        return partitionID < position.length
+                && position[partitionID] != NOT_IN_HEAP;
+    }
+
+    /**
+     * Returns the usage of a partition
+     * 
+     * @param partitionID
+     * @return usage in bytes or 0 if the partition is not in the heap
+     */
+    public long getUsage(int partitionID) {
+        if (!contains(partitionID)) {
+            return 0;
+        }
+        return usage[position[partitionID]];
+    }
+
+    /**
+     * Changes the usage of a partition by the given amount. Partitions that
+     * are not yet in the heap are added with an initial usage of 0.
+     * 
+     * @param partitionID
+     * @param delta
+     *            bytes to add (or remove if negative)
+     */
+    public void addUsage(int partitionID, long delta) {
+        if (!contains(partitionID)) {
+            insert(partitionID);
+        }
+        int i = position[partitionID];
+        usage[i] += delta;
+
+        if (delta > 0) {
+            siftUp(i);
+        } else if (delta < 0) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Removes a partition from the heap
+     * 
+     * @param partitionID
+     */
+    public void remove(int partitionID) {
+        if (!contains(partitionID)) {
+            return;
+        }
+        int i = position[partitionID];
+        size--;
+        if (i != size) {
+            int moved = heap[size];
+            move(size, i);
+            siftUp(i);
+            siftDown(position[moved]);
+        }
+        position[partitionID] = NOT_IN_HEAP;
+    }
+
+    /**
+     * Returns the ID of the partition with highest usage
+     * 
+     * @return partition ID or -1 if the heap is empty
+     */
+    public int getHighest() {
+        if (size == 0) {
+            return -1;
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the ID of the partition with second highest usage, i.e., the
+     * higher child of the root
+     * 
+     * @return partition ID or -1 if there are less than two partitions
+     */
+    public int getSecondHighest() {
+        if (size < 2) {
+            return -1;
+        }
+        if (size == 2 || higher(1, 2)) {
+            return heap[1];
+        }
+        return heap[2];
+    }
+
+    private void insert(int partitionID) {
+        if (partitionID >= position.length) {
+            int oldLength = position.length;
+            position = Arrays.copyOf(position,
+                    Math.max(partitionID + 1, oldLength * 2));
+            Arrays.fill(position, oldLength, position.length, NOT_IN_HEAP);
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            usage = Arrays.copyOf(usage, size * 2);
+        }
+        heap[size] = partitionID;
+        usage[size] = 0;
+        position[partitionID] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Returns true if the entry at heap index a is higher than the one at b
+     */
+    private boolean higher(int a, int b) {
+        if (usage[a] != usage[b]) {
+            return usage[a] > usage[b];
+        }
+        return heap[a] < heap[b];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!higher(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int child = left;
+            if (left + 1 < size && higher(left + 1, left)) {
+                child = left + 1;
+            }
+            if (!higher(child, i)) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = heap[a];
+        long u = usage[a];
+        heap[a] = heap[b];
+        usage[a] = usage[b];
+        heap[b] = id;
+        usage[b] = u;
+        position[heap[a]] = a;
+        position[heap[b]] = b;
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        usage[to] = usage[from];
+        position[heap[to]] = to;
+    }
+
+}
@@ -5,13 +5,15 @@
 
 package applications;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Random;
 
 import core.Application;
 import core.DTNHost;
+import core.DTNSim;
 import core.Message;
+import core.MessageBufferListener;
 import core.Settings;
 import core.SimClock;
 import core.SimScenario;
@@ -23,45 +25,25 @@ import core.World;
  * The corresponding <code>ResourceManagementAppReporter</code> class can be
  * used to record information about the application behavior.
  * 
- * IMPORTANT: For this application to work, additional changes are needed in
- * ActiveRouter.dropExpiredMessage()!
+ * The application is a <code>MessageBufferListener</code> of the router, so
+ * messages deleted from the buffer of the ONE are also deleted from the
+ * <code>ResourceManagementBuffer</code>.
  * 
- * @see ResourceManagementAppReporter, ResourceManagementBuffer, ActiveRouter
+ * @see ResourceManagementAppReporter, ResourceManagementBuffer
  * @author Dominik Schürmann
  */
-public class ResourceManagementApplication extends Application {
+public class ResourceManagementApplication extends Application implements
+        MessageBufferListener {
 
     /**
-     * Debug config
+     * Debug log level
      * 
      * 0: deactivated, 1: infos when starting, 2: warning, 3: important, 4:
-     * debug
+     * debug. Defaults to 0 in batch mode and to 3 otherwise.
+     * 
+     * @see ResourceManagementLog
      */
-    public static int DEBUG = 3;
-
-    public static void logDebug(String message) {
-        if (DEBUG >= 4) {
-            System.out.println(message);
-        }
-    }
-
-    public static void logImportant(String message) {
-        if (DEBUG >= 3) {
-            System.out.println(message);
-        }
-    }
-
-    public static void logWarning(String message) {
-        if (DEBUG >= 2) {
-            System.out.println(message);
-        }
-    }
-
-    public static void logInfo(String message) {
-        if (DEBUG >= 1) {
-            System.out.println(message);
-        }
-    }
+    public static final String LOG_LEVEL = "logLevel";
 
     /** Run in passive mode - don't generate requests but respond */
     public static final String PASSIVE = "passive";
@@ -103,12 +85,65 @@ public class ResourceManagementApplication extends Application {
     /** distinguish between request and response */
     public static final String SIMULATE_PROXY_SIGNATURES = "simulateProxySignatures";
 
+    /**
+     * Eviction policy of the buffers - class name of a
+     * <code>BufferEvictionPolicy</code> in the applications package, defaults
+     * to <code>MaxMinFairShareEvictionPolicy</code>
+     */
+    public static final String EVICTION_POLICY = "evictionPolicy";
+
+    /** package of the eviction policies */
+    private static final String EVICTION_POLICY_PACKAGE = "applications.";
+
+    /**
+     * Batch admission - instead of adding every received message to the
+     * buffer at once, messages are queued and added as one batch on the next
+     * update of the host, so the dropped messages of a contact burst are
+     * selected and deleted together.
+     */
+    public static final String BATCH_ADMISSION = "batchAdmission";
+
     /** Application ID */
     public static final String APP_ID = "fi.tkk.netlab.ResourceManagementApplication";
 
+    /** Message types, carried as {@link Message#getAppMessageType()} */
+    public static final int MSG_REQUEST = 1;
+    public static final int MSG_REQUEST_RES_HOG = 2;
+    public static final int MSG_RESPONSE = 3;
+    public static final int MSG_RESPONSE_RES_HOG = 4;
+    public static final int MSG_UNIDIRECTIONAL = 5;
+
+    /** Names of the message types, used as prefix of message IDs */
+    private static final String[] MSG_NAMES = { null, "request",
+            "request_reshog", "response", "response_reshog", "unidirectional" };
+
+    /**
+     * Event types, sent to listeners together with their names in
+     * {@link #EVENT_NAMES}
+     */
+    public static final int EVENT_GOT_REQUEST = 0;
+    public static final int EVENT_SENT_RESPONSE = 1;
+    public static final int EVENT_GOT_RESPONSE = 2;
+    public static final int EVENT_SENT_REQUEST = 3;
+    public static final int EVENT_GOT_UNIDIRECTIONAL = 4;
+    public static final int EVENT_SENT_UNIDIRECTIONAL = 5;
+    public static final int EVENT_GOT_REQUEST_RES_HOG = 6;
+    public static final int EVENT_SENT_RESPONSE_RES_HOG = 7;
+    public static final int EVENT_GOT_RESPONSE_RES_HOG = 8;
+    public static final int EVENT_SENT_REQUEST_RES_HOG = 9;
+    /** Number of event types */
+    public static final int NROF_EVENTS = 10;
+
+    /** Names of the event types, indexed by type */
+    public static final String[] EVENT_NAMES = { "GotRequest",
+            "SentResponse", "GotResponse", "SentRequest", "GotUnidirectional",
+            "SentUnidirectional", "GotRequestResHog", "SentResponseResHog",
+            "GotResponseResHog", "SentRequestResHog" };
+
     // Private vars
     private double lastRequest = 0;
     private double lastRequestResHogs = 0;
+    private boolean batchAdmission = false;
 
     private double interval = 500;
     private double intervalResHogs = 500;
@@ -138,12 +173,23 @@ public class ResourceManagementApplication extends Application {
     private Random rng;
 
     private int numberOfServers;
-    private ArrayList<Integer> serverNodes;
+    /** server addresses in the order they have been chosen */
+    private int[] serverNodes;
+    /** server membership indexed by address */
+    private boolean[] isServerNode;
+    /** all addresses in the destination range that are not servers */
+    private int[] clientNodes;
 
     private int numberOfResHogs;
-    private ArrayList<Integer> resHogs;
+    /** resource hog membership indexed by address */
+    private boolean[] isResHogNode;
 
-    private ResourceManagementBuffer[] buffer;
+    /** buffers of all nodes, shared by all instances */
+    private ResourceManagementBufferStore bufferStore;
+    /** prototype of the eviction policy of the buffers */
+    private BufferEvictionPolicy evictionPolicy;
+    /** debug log, shared by the prototype and all its replicas */
+    private ResourceManagementLog log;
 
     /**
      * Creates a new request application with the given settings.
@@ -152,6 +198,14 @@ public class ResourceManagementApplication extends Application {
      *            Settings to use for initializing the application.
      */
     public ResourceManagementApplication(Settings s) {
+        if (s.contains(LOG_LEVEL)) {
+            this.log = new ResourceManagementLog(s.getInt(LOG_LEVEL));
+        } else if (DTNSim.isBatchMode()) {
+            this.log = new ResourceManagementLog(ResourceManagementLog.OFF);
+        } else {
+            this.log = new ResourceManagementLog(
+                    ResourceManagementLog.IMPORTANT);
+        }
         if (s.contains(PASSIVE)) {
             this.passive = s.getBoolean(PASSIVE);
         }
@@ -216,6 +270,18 @@ public class ResourceManagementApplication extends Application {
                     .getBoolean(SIMULATE_PROXY_SIGNATURES);
         }
 
+        if (s.contains(BATCH_ADMISSION)) {
+            this.batchAdmission = s.getBoolean(BATCH_ADMISSION);
+        }
+
+        if (s.contains(EVICTION_POLICY)) {
+            this.evictionPolicy = (BufferEvictionPolicy) s
+                    .createIntializedObject(EVICTION_POLICY_PACKAGE
+                            + s.getSetting(EVICTION_POLICY));
+        } else {
+            this.evictionPolicy = new MaxMinFairShareEvictionPolicy(s);
+        }
+
         rng = new Random(this.seed);
         super.setAppID(APP_ID);
 
@@ -223,7 +289,8 @@ public class ResourceManagementApplication extends Application {
 
         initResHogs();
 
-        initBuffer();
+        evictionPolicy.init(this);
+        bufferStore = ResourceManagementBufferStore.getStore();
     }
 
     /**
@@ -232,23 +299,37 @@ public class ResourceManagementApplication extends Application {
     private void initServers() {
         double percentage = percentageOfServers / (double) 100;
         numberOfServers = (int) ((double) this.destMax * percentage);
-        logInfo("Number of servers: " + numberOfServers);
+        log.info("Number of servers: {}", numberOfServers);
 
         // select servers
-        serverNodes = new ArrayList<Integer>();
+        serverNodes = new int[numberOfServers];
+        isServerNode = new boolean[destMax];
         for (int i = 0; i < numberOfServers; i++) {
 
             // choose random server previously not in list
             int randomAddress = getRandomHostAddress();
-            while (serverNodes.contains(randomAddress)) {
+            while (isServerNode[randomAddress]) {
                 randomAddress = getRandomHostAddress();
             }
 
             // add it
-            serverNodes.add(randomAddress);
+            serverNodes[i] = randomAddress;
+            isServerNode[randomAddress] = true;
+        }
+
+        // all other nodes are clients
+        clientNodes = new int[destMax - destMin - numberOfServers];
+        int nextClient = 0;
+        for (int address = destMin; address < destMax; address++) {
+            if (!isServerNode[address]) {
+                clientNodes[nextClient++] = address;
+            }
         }
 
-        logInfo("Randomly chosen server nodes: " + serverNodes);
+        if (log.isEnabled(ResourceManagementLog.INFO)) {
+            log.info("Randomly chosen server nodes: {}",
+                    Arrays.toString(serverNodes));
+        }
     }
 
     /**
@@ -257,44 +338,28 @@ public class ResourceManagementApplication extends Application {
     private void initResHogs() {
         double percentage = percentageOfResHogs / (double) 100;
         numberOfResHogs = (int) ((double) this.destMax * percentage);
-        logInfo("Number of resource hogs: " + numberOfResHogs);
+        log.info("Number of resource hogs: {}",
+                numberOfResHogs);
 
         // select servers
-        resHogs = new ArrayList<Integer>();
+        int[] resHogs = new int[numberOfResHogs];
+        isResHogNode = new boolean[destMax];
         for (int i = 0; i < numberOfResHogs; i++) {
 
             // choose random server previously not in list
             int randomAddress = getRandomHostAddress();
-            while ((serverNodes.contains(randomAddress))
-                    || (resHogs.contains(randomAddress))) {
+            while (isServerNode[randomAddress] || isResHogNode[randomAddress]) {
                 randomAddress = getRandomHostAddress();
             }
 
             // add it
-            resHogs.add(randomAddress);
+            resHogs[i] = randomAddress;
+            isResHogNode[randomAddress] = true;
         }
 
-        logInfo("Randomly chosen resource hogs: " + resHogs);
-    }
-
-    /**
-     * Init empty buffers per node
-     */
-    private void initBuffer() {
-        buffer = new ResourceManagementBuffer[destMax];
-        // init buffer array
-        for (int i = 0; i < buffer.length; i++) {
-
-            // set buffer size based on type
-            int size = -1;
-            if (serverNodes.contains(i)) {
-                size = serverBufferSize;
-            } else {
-                size = clientBufferSize;
-            }
-
-            // init this buffer
-            buffer[i] = new ResourceManagementBuffer(size);
+        if (log.isEnabled(ResourceManagementLog.INFO)) {
+            log.info("Randomly chosen resource hogs: {}",
+                    Arrays.toString(resHogs));
         }
     }
 
@@ -321,8 +386,12 @@ public class ResourceManagementApplication extends Application {
         this.unidirectionalMaxSize = a.getUnidirectionalMaxSize();
 
         this.serverNodes = a.getServerNodes();
+        this.isServerNode = a.isServerNode;
+        this.clientNodes = a.clientNodes;
         this.numberOfServers = a.getNumberOfServers();
-        this.buffer = a.getBuffer();
+        this.bufferStore = a.getBufferStore();
+        this.evictionPolicy = a.evictionPolicy;
+        this.log = a.log;
 
         this.clientBufferSize = a.getClientBufferSize();
         this.serverBufferSize = a.getServerBufferSize();
@@ -335,8 +404,9 @@ public class ResourceManagementApplication extends Application {
         this.intervalResHogs = a.getIntervalResHogs();
         this.numberOfResHogs = a.getNumberOfResHogs();
         this.percentageOfResHogs = a.getPercentageOfResHogs();
-        this.resHogs = a.getResHogs();
+        this.isResHogNode = a.isResHogNode;
         this.lastRequestResHogs = a.getLastRequestResHog();
+        this.batchAdmission = a.isBatchAdmission();
 
         this.rng = new Random(this.seed);
     }
@@ -358,51 +428,49 @@ public class ResourceManagementApplication extends Application {
      */
     @Override
     public Message handle(Message msg, DTNHost host) {
-        String type = (String) msg.getProperty("type");
-        if (type == null)
+        int type = msg.getAppMessageType();
+        if (!APP_ID.equals(msg.getAppID())
+                || type == Message.NO_APP_MESSAGE_TYPE)
             return msg; // Not a request/response/unidirectional message
 
-        logImportant("");
-        logImportant("-----------handle--------------");
+        if (log.isEnabled(ResourceManagementLog.IMPORTANT)) {
+            log.important("");
+            log.important("-----------handle--------------");
 
-        logImportant("On node " + host.getAddress()
-                + ": Incoming message (ID: " + msg.getId() + ", from:"
-                + msg.getFrom().getAddress() + ", to:"
-                + msg.getTo().getAddress() + ")");
+            log.important(
+                    "On node {}: Incoming message (ID: {}, from:{}, to:{})",
+                    host, msg, msg.getFrom(), msg.getTo());
 
-        logBuffer(host);
+            logBuffer(host);
+        }
 
         // forward and do resource management if we are not the recipient!
         if (msg.getTo().getAddress() != host.getAddress()) {
-            if (type.equalsIgnoreCase("request")
-                    || type.equalsIgnoreCase("request_reshog")
-                    || type.equalsIgnoreCase("unidirectional")) {
-
+            switch (type) {
+            case MSG_REQUEST:
+            case MSG_REQUEST_RES_HOG:
+            case MSG_UNIDIRECTIONAL:
                 // buffer by source
-                logDebug("buffering " + type + " (ID: " + msg.getId()
-                        + ") on node " + host.getAddress() + " into partition "
-                        + msg.getFrom().getAddress());
-                buffer[host.getAddress()].addMessage(
-                        msg.getFrom().getAddress(), msg, host);
-            }
-
-            if (type.equalsIgnoreCase("response")
-                    || type.equalsIgnoreCase("response_reshog")) {
-
+                log.debug(
+                        "buffering {} (ID: {}) on node {} into partition {}",
+                        MSG_NAMES[type], msg, host, msg.getFrom());
+                bufferMessage(host, msg.getFrom().getAddress(), msg);
+                break;
+
+            case MSG_RESPONSE:
+            case MSG_RESPONSE_RES_HOG:
                 if (simulateProxySignatures) {
                     // buffer by destination -> proxy sig!
-                    logDebug("buffering response on " + host.getAddress()
-                            + " into " + msg.getTo().getAddress());
-                    buffer[host.getAddress()].addMessage(msg.getTo()
-                            .getAddress(), msg, host);
+                    log.debug("buffering response on {} into {}",
+                            host, msg.getTo());
+                    bufferMessage(host, msg.getTo().getAddress(), msg);
                 } else {
                     // buffer by source
-                    logDebug("buffering response on " + host.getAddress()
-                            + " into " + msg.getFrom().getAddress());
-                    buffer[host.getAddress()].addMessage(msg.getFrom()
-                            .getAddress(), msg, host);
+                    log.debug("buffering response on {} into {}",
+                            host, msg.getFrom());
+                    bufferMessage(host, msg.getFrom().getAddress(), msg);
                 }
-
+                break;
             }
 
             logBuffer(host);
@@ -412,9 +480,10 @@ public class ResourceManagementApplication extends Application {
         } else if (msg.getTo().getAddress() == host.getAddress()) {
             // when we are the recipient...
 
-            // Respond with response if we're the recipient
-            if (type.equalsIgnoreCase("request")
-                    || type.equalsIgnoreCase("request_reshog")) {
+            switch (type) {
+            case MSG_REQUEST:
+            case MSG_REQUEST_RES_HOG:
+                // Respond with response if we're the recipient
 
                 // random size of response
                 int size = rng.nextInt(responseMaxSize - responseMinSize)
@@ -425,19 +494,18 @@ public class ResourceManagementApplication extends Application {
                         + host.getAddress() + "-" + msg.getFrom().getAddress();
                 Message m = new Message(host, msg.getFrom(), id, size);
 
-                if (type.equalsIgnoreCase("request")) {
-                    m.addProperty("type", "response");
+                if (type == MSG_REQUEST) {
+                    m.setAppMessageType(MSG_RESPONSE);
 
                     // Send event to listeners
-                    super.sendEventToListeners("GotRequest", null, host);
-                    super.sendEventToListeners("SentResponse", null, host);
-
-                } else if (type.equalsIgnoreCase("request_reshog")) {
-                    m.addProperty("type", "response_reshog");
+                    sendEvent(EVENT_GOT_REQUEST, host);
+                    sendEvent(EVENT_SENT_RESPONSE, host);
+                } else {
+                    m.setAppMessageType(MSG_RESPONSE_RES_HOG);
 
                     // Send event to listeners
-                    super.sendEventToListeners("GotRequestResHog", null, host);
-                    super.sendEventToListeners("SentResponseResHog", null, host);
+                    sendEvent(EVENT_GOT_REQUEST_RES_HOG, host);
+                    sendEvent(EVENT_SENT_RESPONSE_RES_HOG, host);
                 }
                 m.setAppID(APP_ID);
                 host.createNewMessage(m);
@@ -445,36 +513,31 @@ public class ResourceManagementApplication extends Application {
                 // buffer the response in own buffer!!!
                 if (simulateProxySignatures) {
                     // buffer by destination -> proxy sig!
-                    logDebug("buffering response on " + host.getAddress()
-                            + " into " + m.getTo().getAddress());
-                    buffer[host.getAddress()].addMessage(
-                            m.getTo().getAddress(), m, host);
+                    log.debug("buffering response on {} into {}",
+                            host, m.getTo());
+                    bufferMessage(host, m.getTo().getAddress(), m);
                 } else {
                     // buffer by source
-                    logDebug("buffering response on " + host.getAddress()
-                            + " into " + m.getFrom().getAddress());
-                    buffer[host.getAddress()].addMessage(m.getFrom()
-                            .getAddress(), m, host);
+                    log.debug("buffering response on {} into {}",
+                            host, m.getFrom());
+                    bufferMessage(host, m.getFrom().getAddress(), m);
                 }
-
-            }
-
-            // Received a response
-            if (type.equalsIgnoreCase("response")) {
-                // Send event to listeners
-                super.sendEventToListeners("GotResponse", null, host);
-            }
-
-            // Received a response
-            if (type.equalsIgnoreCase("response_reshog")) {
-                // Send event to listeners
-                super.sendEventToListeners("GotResponseResHog", null, host);
-            }
-
-            // Received a unidirectional message
-            if (type.equalsIgnoreCase("unidirectional")) {
-                // Send event to listeners
-                super.sendEventToListeners("GotUnidirectional", null, host);
+                break;
+
+            case MSG_RESPONSE:
+                // Received a response
+                sendEvent(EVENT_GOT_RESPONSE, host);
+                break;
+
+            case MSG_RESPONSE_RES_HOG:
+                // Received a response
+                sendEvent(EVENT_GOT_RESPONSE_RES_HOG, host);
+                break;
+
+            case MSG_UNIDIRECTIONAL:
+                // Received a unidirectional message
+                sendEvent(EVENT_GOT_UNIDIRECTIONAL, host);
+                break;
             }
 
             logBuffer(host);
@@ -511,7 +574,7 @@ public class ResourceManagementApplication extends Application {
      */
     private int getRandomServerAddress() {
         int randomIndex = rng.nextInt(numberOfServers);
-        int server = serverNodes.get(randomIndex);
+        int server = serverNodes[randomIndex];
 
         return server;
     }
@@ -522,13 +585,29 @@ public class ResourceManagementApplication extends Application {
      * @return
      */
     private int getRandomClientAddress() {
-        // choose dest not in list
-        int randomAddress = getRandomHostAddress();
-        while (serverNodes.contains(randomAddress)) {
-            randomAddress = getRandomHostAddress();
-        }
+        return clientNodes[rng.nextInt(clientNodes.length)];
+    }
 
-        return randomAddress;
+    /**
+     * Returns true if the node with this address is a server
+     * 
+     * @param address
+     * @return true if server
+     */
+    public boolean isServer(int address) {
+        return address >= 0 && address < isServerNode.length
+                && isServerNode[address];
+    }
+
+    /**
+     * Returns true if the node with this address is a resource hog
+     * 
+     * @param address
+     * @return true if resource hog
+     */
+    public boolean isResHog(int address) {
+        return address >= 0 && address < isResHogNode.length
+                && isResHogNode[address];
     }
 
     /**
@@ -561,31 +640,71 @@ public class ResourceManagementApplication extends Application {
      * (type unidirectional)
      * 
      * @param destination
-     * @return
+     * @return message type
      */
-    private String getTypeBasedOnDestination(int destination, boolean resHog) {
-        if (serverNodes.contains(destination)) {
+    private int getTypeBasedOnDestination(int destination, boolean resHog) {
+        if (isServer(destination)) {
             if (resHog) {
-                return "request_reshog";
+                return MSG_REQUEST_RES_HOG;
             } else {
-                return "request";
+                return MSG_REQUEST;
             }
         } else {
-            return "unidirectional";
+            return MSG_UNIDIRECTIONAL;
         }
     }
 
     /**
-     * This method is executed by hard code in
-     * routing/MessageRouter.deleteMessage()
+     * Sends a typed event to the listeners
      * 
-     * It also deletes messages from our buffer system
+     * @param eventType
+     *            one of the EVENT_ constants
+     * @param host
+     */
+    private void sendEvent(int eventType, DTNHost host) {
+        super.sendEventToListeners(eventType, EVENT_NAMES[eventType], null,
+                host);
+    }
+
+    /**
+     * Adds message to the buffer of the host or queues it for batch admission
+     * 
+     * @param host
+     * @param partitionID
+     * @param msg
+     */
+    private void bufferMessage(DTNHost host, int partitionID, Message msg) {
+        ResourceManagementBuffer buffer = bufferStore.getBuffer(this,
+                host.getAddress());
+        if (batchAdmission) {
+            buffer.queueMessage(partitionID, msg);
+        } else {
+            buffer.addMessage(partitionID, msg, host);
+        }
+    }
+
+    /**
+     * Deletes messages removed from the buffer of the ONE also from our buffer
+     * system
+     */
+    public void messageRemoved(Message m, DTNHost host, boolean dropped) {
+        deleteMessage(host, m.getId());
+    }
+
+    /**
+     * Deletes a message from our buffer system
      * 
      * @param host
      * @param messageID
+     * @return true if the message was in our buffer
      */
-    public void deleteMessage(DTNHost host, String messageID) {
-        buffer[host.getAddress()].deleteMessage(host, messageID);
+    public boolean deleteMessage(DTNHost host, String messageID) {
+        ResourceManagementBuffer buffer = bufferStore.getExistingBuffer(host
+                .getAddress());
+        if (buffer == null) {
+            return false; // nothing buffered on this node
+        }
+        return buffer.deleteMessage(host, messageID);
     }
 
     /**
@@ -596,6 +715,15 @@ public class ResourceManagementApplication extends Application {
      */
     @Override
     public void update(DTNHost host) {
+        if (batchAdmission) {
+            // add messages received since the last update
+            ResourceManagementBuffer buffer = bufferStore
+                    .getExistingBuffer(host.getAddress());
+            if (buffer != null) {
+                buffer.admitQueuedMessages(host);
+            }
+        }
+
         if (this.passive)
             return;
         double curTime = SimClock.getTime();
@@ -604,7 +732,7 @@ public class ResourceManagementApplication extends Application {
         double thisLastRequest = -1;
         double thisInterval = -1;
         boolean resHog = false;
-        if (resHogs.contains(host.getAddress())) {
+        if (isResHog(host.getAddress())) {
             resHog = true;
             thisLastRequest = this.lastRequestResHogs;
             thisInterval = this.intervalResHogs;
@@ -616,23 +744,23 @@ public class ResourceManagementApplication extends Application {
 
         if (curTime - thisLastRequest >= thisInterval) {
 
-            logImportant("");
-            logImportant("-----------update--------------");
+            log.important("");
+            log.important("-----------update--------------");
 
             // Time to send a new message
             DTNHost destinationHost = getRandomDestinationHost();
-            String type = getTypeBasedOnDestination(
+            int type = getTypeBasedOnDestination(
                     destinationHost.getAddress(), resHog);
 
             logBuffer(host);
 
             // size of message
             int size = -1;
-            if (type.equals("request") || type.equals("request_reshog")) {
+            if (type == MSG_REQUEST || type == MSG_REQUEST_RES_HOG) {
                 // random size of request
                 size = rng.nextInt(requestMaxSize - requestMinSize)
                         + requestMinSize;
-            } else if (type.equals("unidirectional")) {
+            } else {
                 // random size of unidirectional
                 size = rng.nextInt(unidirectionalMaxSize
                         - unidirectionalMinSize)
@@ -642,28 +770,31 @@ public class ResourceManagementApplication extends Application {
             // type is "request" (to server) or "unidirectional" (to other
             // clients)
             // ID syntax: request/unidirectional-time-source-destination
-            Message m = new Message(host, destinationHost, type
+            Message m = new Message(host, destinationHost, MSG_NAMES[type]
                     + SimClock.getTime() + "-" + host.getAddress() + "-"
                     + destinationHost.getAddress(), size);
-            m.addProperty("type", type);
+            m.setAppMessageType(type);
             m.setAppID(APP_ID);
             host.createNewMessage(m);
 
             // Call listeners
-            if (type.equals("request")) {
-                super.sendEventToListeners("SentRequest", null, host);
-            } else if (type.equals("request_reshog")) {
-                super.sendEventToListeners("SentRequestResHog", null, host);
-            } else if (type.equals("unidirectional")) {
-                super.sendEventToListeners("SentUnidirectional", null, host);
+            switch (type) {
+            case MSG_REQUEST:
+                sendEvent(EVENT_SENT_REQUEST, host);
+                break;
+            case MSG_REQUEST_RES_HOG:
+                sendEvent(EVENT_SENT_REQUEST_RES_HOG, host);
+                break;
+            case MSG_UNIDIRECTIONAL:
+                sendEvent(EVENT_SENT_UNIDIRECTIONAL, host);
+                break;
             }
 
             // buffer by source
-            logDebug("update: buffering own message" + type + " (ID: "
-                    + m.getId() + ") on node " + host.getAddress()
-                    + " into partition " + host.getAddress());
-            buffer[host.getAddress()].addMessage(m.getFrom().getAddress(), m,
-                    host);
+            log.debug(
+                    "update: buffering own message{} (ID: {}) on node {} into partition {}",
+                    MSG_NAMES[type], m, host, host);
+            bufferMessage(host, m.getFrom().getAddress(), m);
 
             logBuffer(host);
 
@@ -675,22 +806,54 @@ public class ResourceManagementApplication extends Application {
         }
     }
 
+    /**
+     * Returns the time of the next request of this host, or the current time
+     * if there are queued messages to admit. The discreteEvent and adaptive
+     * engines (see {@link SimScenario#ENGINE_S}) skip the updates of the host
+     * until then, so the request interval is only checked when a request is
+     * due.
+     * 
+     * @param host
+     *            to which the application instance is attached
+     */
+    @Override
+    public double getNextEventTime(DTNHost host) {
+        if (batchAdmission) {
+            ResourceManagementBuffer buffer = bufferStore
+                    .getExistingBuffer(host.getAddress());
+            if (buffer != null && buffer.getNrofQueuedMessages() > 0) {
+                return SimClock.getTime();
+            }
+        }
+        if (this.passive) {
+            return Double.MAX_VALUE;
+        }
+        if (isResHog(host.getAddress())) {
+            return lastRequestResHogs + intervalResHogs;
+        }
+        return lastRequest + interval;
+    }
+
     /**
      * Displays buffer of application and the ONE
      * 
      * @param host
      */
     private void logBuffer(DTNHost host) {
-        if (DEBUG >= 2) {
+        if (log.isEnabled(ResourceManagementLog.IMPORTANT)) {
 
-            logImportant("Buffers on node " + host.getAddress() + ":");
+            log.important("Buffers on node {}:", host);
 
             // log application buffer
-            buffer[host.getAddress()].logThisBuffer();
+            ResourceManagementBuffer buffer = bufferStore
+                    .getExistingBuffer(host.getAddress());
+            if (buffer != null) {
+                buffer.logThisBuffer();
+            }
 
             // log the ONE buffer
             Collection<Message> messages = host.getMessageCollection();
-            logImportant("The ONE buffer: " + messages);
+            log.important("The ONE buffer: {}", messages);
         }
     }
 
@@ -750,20 +913,20 @@ public class ResourceManagementApplication extends Application {
         this.numberOfServers = numberOfServers;
     }
 
-    public ArrayList<Integer> getServerNodes() {
+    public int[] getServerNodes() {
         return serverNodes;
     }
 
-    public void setServerNodes(ArrayList<Integer> serverNodes) {
-        this.serverNodes = serverNodes;
+    public ResourceManagementBufferStore getBufferStore() {
+        return bufferStore;
     }
 
-    public ResourceManagementBuffer[] getBuffer() {
-        return buffer;
+    public BufferEvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
     }
 
-    public void setBuffer(ResourceManagementBuffer[] buffer) {
-        this.buffer = buffer;
+    public ResourceManagementLog getLog() {
+        return log;
     }
 
     public boolean isWithProxySignatures() {
@@ -878,12 +1041,12 @@ public class ResourceManagementApplication extends Application {
         this.numberOfResHogs = numberOfResHogs;
     }
 
-    public ArrayList<Integer> getResHogs() {
-        return resHogs;
+    public boolean isBatchAdmission() {
+        return batchAdmission;
     }
 
-    public void setResHogs(ArrayList<Integer> resHogs) {
-        this.resHogs = resHogs;
+    public void setBatchAdmission(boolean batchAdmission) {
+        this.batchAdmission = batchAdmission;
     }
 
     public double getLastRequestResHog() {
@@ -5,10 +5,11 @@
 
 package applications;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
 import java.util.Map.Entry;
 
 import core.DTNHost;
@@ -16,70 +17,249 @@ import core.Message;
 
 public class ResourceManagementBuffer {
 
-    private HashMap<Integer, HashSet<Message>> buffer;
+    private HashMap<Integer, BufferPartition> buffer;
+    /* all partitions in the order of creation (partitions are never removed),
+     * for iterating them without allocating an iterator */
+    private int[] partitionIDs;
+    private BufferPartition[] partitions;
+    private int nrofPartitions;
     private int maxBufferSize;
 
+    /** partition ID of every buffered message by message ID */
+    private HashMap<String, Integer> messagePartitions;
+
+    /** decides from which partition messages are dropped */
+    private BufferEvictionPolicy evictionPolicy;
+    /** debug log of the application */
+    private ResourceManagementLog log;
+    /** sum of all partition usages */
+    private int wholeBufferUsage;
+
+    /* statistics, see ResourceManagementBufferReport */
+    /** highest whole buffer usage so far */
+    private int peakUsage;
+    /** number of dropped messages by partition ID */
+    private int[] partitionDrops;
+    /** number of dropped messages */
+    private long drops;
+    /** number of iterations of the drop loop */
+    private long dropLoopIterations;
+    /** number of runs of the drop loop that had to drop */
+    private long evictions;
+    /** time spent in these runs in nanoseconds */
+    private long evictionTime;
+    /** start time of the current eviction or -1 */
+    private long evictionStartTime;
+
+    /** IDs of the messages dropped by the current admission, not yet deleted
+     * from the host */
+    private ArrayList<String> evictionSet;
+
+    /* messages waiting for batch admission */
+    private int[] queuedPartitions;
+    private Message[] queuedMessages;
+    private int nrofQueued;
+    /* arrays of the previous batch, reused for the next queue */
+    private int[] spareQueuedPartitions;
+    private Message[] spareQueuedMessages;
+
     /**
      * Constructor
      * 
      * @param maxBufferSize
      *            in bytes (1 MB = 1024 KB = 1048576 Byte)
+     * @param evictionPolicy
+     *            policy used for this buffer only
+     * @param log
+     *            debug log of the application
      */
-    public ResourceManagementBuffer(int maxBufferSize) {
+    public ResourceManagementBuffer(int maxBufferSize,
+            BufferEvictionPolicy evictionPolicy, ResourceManagementLog log) {
         this.maxBufferSize = maxBufferSize;
-
-        this.buffer = new HashMap<Integer, HashSet<Message>>();
+        this.evictionPolicy = evictionPolicy;
+        this.log = log;
+
+        this.buffer = new HashMap<Integer, BufferPartition>();
+        this.partitionIDs = new int[0];
+        this.partitions = new BufferPartition[0];
+        this.nrofPartitions = 0;
+        this.messagePartitions = new HashMap<String, Integer>();
+        this.wholeBufferUsage = 0;
+        this.partitionDrops = new int[0];
+        this.evictionStartTime = -1;
+        this.evictionSet = new ArrayList<String>();
+        this.queuedPartitions = new int[0];
+        this.queuedMessages = new Message[0];
+        this.nrofQueued = 0;
+        this.spareQueuedPartitions = new int[0];
+        this.spareQueuedMessages = new Message[0];
     }
 
     /**
      * Debug logging of current buffer state
      */
     public void logThisBuffer() {
-        if (ResourceManagementApplication.DEBUG >= 2) {
+        if (log.isEnabled(ResourceManagementLog.IMPORTANT)) {
 
-            String output = "[";
+            StringBuilder output = new StringBuilder("[");
             // go through all buffers
-            Iterator<Entry<Integer, HashSet<Message>>> it = buffer.entrySet()
+            Iterator<Entry<Integer, BufferPartition>> it = buffer.entrySet()
                     .iterator();
             while (it.hasNext()) {
-                Entry<Integer, HashSet<Message>> pairs = it.next();
+                Entry<Integer, BufferPartition> pairs = it.next();
                 int partitionID = pairs.getKey();
 
-                HashSet<Message> partition = pairs.getValue();
+                BufferPartition partition = pairs.getValue();
 
-                output += " " + partitionID + ": " + partition;
+                output.append(" ").append(partitionID).append(": ")
+                        .append(partition);
             }
 
-            output += "]";
+            output.append("]");
 
-            ResourceManagementApplication
-                    .logImportant("ResourceManagement buffer: " + output);
+            log.important("ResourceManagement buffer: {}", output);
         }
     }
 
     /**
-     * Adds message to buffer
+     * Adds message to buffer. A message that is already buffered (in any
+     * partition) is not added again.
      * 
      * @param partitionID
      * @param msg
      * @param bufferHost
      */
     public void addMessage(int partitionID, Message msg, DTNHost bufferHost) {
+        admitMessage(partitionID, msg);
+        // drop until there is enough space
+        dropFromBufferAlgorithm(bufferHost, msg);
+        deleteEvictedMessages(bufferHost);
+    }
+
+    /**
+     * Adds several messages to the buffer as one batch, e.g., all messages
+     * received in one update. All messages are added to their partitions
+     * first and the eviction policy then selects the partitions to drop from
+     * only once for the whole batch. Hence, the messages dropped are those
+     * needed to bring the buffer back under its size after the batch, and
+     * unlike with single {@link #addMessage(int, Message, DTNHost)} calls, a
+     * message of the batch can be dropped if it is the oldest message of the
+     * selected partition. The dropped messages are deleted from the host with
+     * one {@link DTNHost#deleteMessages(List, boolean)} call.
+     * 
+     * @param partitionIDs
+     *            partition of every message
+     * @param msgs
+     *            messages
+     * @param count
+     *            number of messages to add from the arrays
+     * @param bufferHost
+     */
+    public void addMessages(int[] partitionIDs, Message[] msgs, int count,
+            DTNHost bufferHost) {
+        for (int i = 0; i < count; i++) {
+            admitMessage(partitionIDs[i], msgs[i]);
+        }
+        dropFromBufferAlgorithm(bufferHost, null);
+        deleteEvictedMessages(bufferHost);
+    }
+
+    /**
+     * Queues a message for batch admission with
+     * {@link #admitQueuedMessages(DTNHost)}
+     * 
+     * @param partitionID
+     * @param msg
+     */
+    public void queueMessage(int partitionID, Message msg) {
+        if (nrofQueued == queuedMessages.length) {
+            int newLength = Math.max(8, nrofQueued * 2);
+            queuedPartitions = Arrays.copyOf(queuedPartitions, newLength);
+            queuedMessages = Arrays.copyOf(queuedMessages, newLength);
+        }
+        queuedPartitions[nrofQueued] = partitionID;
+        queuedMessages[nrofQueued] = msg;
+        nrofQueued++;
+    }
+
+    /**
+     * Adds all queued messages to the buffer as one batch. The queue is
+     * emptied before the batch is admitted, so the evicted messages deleted
+     * from the host during the admission are not searched in the queue.
+     * 
+     * @param bufferHost
+     * @see #addMessages(int[], Message[], int, DTNHost)
+     */
+    public void admitQueuedMessages(DTNHost bufferHost) {
+        if (nrofQueued == 0) {
+            return;
+        }
+        int[] batchPartitions = queuedPartitions;
+        Message[] batchMessages = queuedMessages;
+        int count = nrofQueued;
+        queuedPartitions = spareQueuedPartitions;
+        queuedMessages = spareQueuedMessages;
+        nrofQueued = 0;
+
+        addMessages(batchPartitions, batchMessages, count, bufferHost);
+
+        Arrays.fill(batchMessages, 0, count, null);
+        spareQueuedPartitions = batchPartitions;
+        spareQueuedMessages = batchMessages;
+    }
+
+    /**
+     * Returns the number of messages waiting for batch admission
+     * 
+     * @return number of queued messages
+     */
+    public int getNrofQueuedMessages() {
+        return nrofQueued;
+    }
+
+    /**
+     * Adds message to its partition, the buffer may be over its size
+     * afterwards
+     */
+    private void admitMessage(int partitionID, Message msg) {
+        if (messagePartitions.containsKey(msg.getId())) {
+            return;
+        }
+
         // if buffer does not contain such a host add it
-        HashSet<Message> partition;
+        BufferPartition partition;
         if (!buffer.containsKey(partitionID)) {
-            partition = new HashSet<Message>();
-            partition.add(msg);
-
+            partition = new BufferPartition();
             buffer.put(partitionID, partition);
+            addToPartitionList(partitionID, partition);
         } else {
             // add message to existing partition
             partition = buffer.get(partitionID);
-            partition.add(msg);
         }
 
-        // drop until there is enough space
-        dropFromBufferAlgorithm(bufferHost, partitionID, msg);
+        if (partition.add(msg)) {
+            messagePartitions.put(msg.getId(), partitionID);
+            evictionPolicy.messageAdded(partitionID, msg.getSize());
+            wholeBufferUsage += msg.getSize();
+            if (wholeBufferUsage > peakUsage) {
+                peakUsage = wholeBufferUsage;
+            }
+        }
+    }
+
+    /**
+     * Adds a new partition to the partition arrays
+     */
+    private void addToPartitionList(int partitionID,
+            BufferPartition partition) {
+        if (nrofPartitions == partitions.length) {
+            int newLength = Math.max(8, nrofPartitions * 2);
+            partitionIDs = Arrays.copyOf(partitionIDs, newLength);
+            partitions = Arrays.copyOf(partitions, newLength);
+        }
+        partitionIDs[nrofPartitions] = partitionID;
+        partitions[nrofPartitions] = partition;
+        nrofPartitions++;
     }
 
     /**
@@ -87,254 +267,264 @@ public class ResourceManagementBuffer {
      * 
      * @param bufferHost
      * @param messageID
+     * @return true if the message was in the buffer and has been removed
      */
-    public void deleteMessage(DTNHost bufferHost, String messageID) {
-
-        Message messageToDelete = null;
-        // go through all buffers
-        Iterator<Entry<Integer, HashSet<Message>>> it = buffer.entrySet()
-                .iterator();
-        while (it.hasNext()) {
-            Map.Entry<Integer, HashSet<Message>> pairs = it.next();
-            HashSet<Message> partition = (HashSet<Message>) pairs.getValue();
-
-            Iterator<Message> it2 = partition.iterator();
-            while (it2.hasNext()) {
-                Message crMessage = it2.next();
-                if (crMessage.getId() == messageID) {
-                    messageToDelete = crMessage;
-                }
-            }
+    public boolean deleteMessage(DTNHost bufferHost, String messageID) {
+        Integer partitionID = messagePartitions.get(messageID);
+        if (partitionID == null) {
+            // not buffered, e.g., already removed by dropFromBufferAlgorithm
+            return removeQueuedMessage(messageID);
+        }
 
-            try {
-                partition.remove(messageToDelete);
+        removeFromPartition(partitionID, buffer.get(partitionID), messageID,
+                false);
 
-                ResourceManagementApplication
-                        .logImportant("Successfully dropped "
-                                + messageToDelete.getId());
-            } catch (Exception e) {
-                ResourceManagementApplication
-                        .logImportant("Had no success deleting msg from buffer! ("
-                                + e.getMessage() + ")");
+        log.important("Successfully dropped {}", messageID);
+
+        return true;
+    }
+
+    /**
+     * Removes a message waiting for batch admission
+     * 
+     * @return true if the message was queued
+     */
+    private boolean removeQueuedMessage(String messageID) {
+        for (int i = 0; i < nrofQueued; i++) {
+            if (queuedMessages[i].getId().equals(messageID)) {
+                nrofQueued--;
+                System.arraycopy(queuedPartitions, i + 1, queuedPartitions, i,
+                        nrofQueued - i);
+                System.arraycopy(queuedMessages, i + 1, queuedMessages, i,
+                        nrofQueued - i);
+                queuedMessages[nrofQueued] = null;
+                return true;
             }
         }
+        return false;
     }
 
     /**
-     * Drops from buffer until there it is back under the threshold
+     * Drops from buffer until there it is back under the threshold. The
+     * partitions are selected by the eviction policy, the oldest message of
+     * the selected partition is dropped. Dropped messages are removed from
+     * this buffer at once and collected in the eviction set, they are deleted
+     * from the host by {@link #deleteEvictedMessages(DTNHost)}.
+     * 
+     * @param newMessage
+     *            message that must not be dropped (the new message of a
+     *            single admission) or null
      */
     private void dropFromBufferAlgorithm(DTNHost bufferHost,
-            Integer partitionID, Message newMessage) {
+            Message newMessage) {
         // drop from partitions until whole buffer usage is back under maximum
-        int partitionIDToDropFrom = -1;
+        int partitionIDToDropFrom = BufferEvictionPolicy.NO_PARTITION;
 
-        ResourceManagementApplication.logDebug("whole buffer usage: "
-                + getWholeBufferUsage());
-        ResourceManagementApplication.logDebug("maxBufferSize: "
-                + maxBufferSize);
+        log.debug("whole buffer usage: {}", wholeBufferUsage);
+        log.debug("maxBufferSize: {}", maxBufferSize);
 
-        while (getWholeBufferUsage() > maxBufferSize) {
-            partitionIDToDropFrom = getPartitionIDWithHighestUsage(false);
+        if (wholeBufferUsage <= maxBufferSize) {
+            return; // enough space
+        }
+        if (evictionStartTime < 0) {
+            evictionStartTime = System.nanoTime();
+        }
+
+        while (wholeBufferUsage > maxBufferSize) {
+            dropLoopIterations++;
+            partitionIDToDropFrom = evictionPolicy
+                    .selectPartition(BufferEvictionPolicy.NO_PARTITION);
 
             /* Drops message from this partition */
-            HashSet<Message> partition = buffer.get(partitionIDToDropFrom);
+            BufferPartition partition = buffer.get(partitionIDToDropFrom);
 
             // get oldest message from partition
-            Message msgToDrop = getOldestMessage(partition, newMessage);
+            Message msgToDrop = null;
+            if (partition != null) {
+                msgToDrop = partition.getOldestMessage(newMessage);
+            }
 
-            // partition has only this message in it, then take second highest
+            // partition has only this message in it, then take another
             // partition
             if (msgToDrop == null) {
-                ResourceManagementApplication
-                        .logImportant("message to drop is the only message in partition "
-                                + partitionIDToDropFrom);
+                log.important(
+                        "message to drop is the only message in partition {}",
+                        partitionIDToDropFrom);
 
-                // get second highest partition
-                partitionIDToDropFrom = getPartitionIDWithHighestUsage(true);
+                // get next partition of the policy
+                partitionIDToDropFrom = evictionPolicy
+                        .selectPartition(partitionIDToDropFrom);
                 partition = buffer.get(partitionIDToDropFrom);
 
-                msgToDrop = getOldestMessage(partition, newMessage);
+                if (partition != null) {
+                    msgToDrop = partition.getOldestMessage(newMessage);
+                }
             }
 
-            ResourceManagementApplication.logImportant("Dropping message "
-                    + msgToDrop + " on node " + bufferHost.getAddress()
-                    + " from partition: " + partitionIDToDropFrom);
+            if (msgToDrop == null) {
+                // nothing else left to drop, new message is bigger than buffer
+                log.warning("msgToDrop is null! This should not happen!");
+                break;
+            }
 
-            partition.remove(msgToDrop);
+            log.important(
+                    "Dropping message {} on node {} from partition: {}",
+                    msgToDrop, bufferHost, partitionIDToDropFrom);
 
-            // Drop from real buffer in the ONE
-            if (msgToDrop != null) {
-                try {
-                    bufferHost.deleteMessage(msgToDrop.getId(), true);
-                } catch (AssertionError e) {
-                    ResourceManagementApplication
-                            .logWarning("bufferHost.deleteMessage failed! This should not happen! error: "
-                                    + e.getMessage());
-                }
-            } else {
-                ResourceManagementApplication
-                        .logWarning("msgToDrop is null! This should not happen!");
-            }
+            removeFromPartition(partitionIDToDropFrom, partition,
+                    msgToDrop.getId(), true);
+            countDrop(partitionIDToDropFrom);
+            evictionSet.add(msgToDrop.getId());
         }
     }
 
     /**
-     * 
-     * Forked from ActiveRouter
-     * 
-     * Returns the oldest (by receive time) message in the message buffer (that
-     * is not being sent if excludeMsgBeingSent is true).
-     * 
-     * @param excludeMsgBeingSent
-     *            If true, excludes message(s) that are being sent from the
-     *            oldest message check (i.e. if oldest message is being sent,
-     *            the second oldest message is returned)
-     * @return The oldest message or null if no message could be returned (no
-     *         messages in buffer or all messages in buffer are being sent and
-     *         exludeMsgBeingSent is true)
+     * Deletes the messages of the eviction set from the real buffer in the ONE
+     * at once
      */
-    protected Message getOldestMessage(HashSet<Message> partition,
-            Message excludeMessage) {
-        Message oldest = null;
-        for (Message m : partition) {
-
-            if (!m.equals(excludeMessage)) {
-                if (oldest == null) {
-                    oldest = m;
-                } else if (oldest.getReceiveTime() > m.getReceiveTime()) {
-                    oldest = m;
-                }
-            }
+    private void deleteEvictedMessages(DTNHost bufferHost) {
+        if (evictionStartTime < 0) {
+            return; // nothing dropped
+        }
+
+        int deleted = bufferHost.deleteMessages(evictionSet, true);
+        if (deleted < evictionSet.size()) {
+            log.warning(
+                    "bufferHost.deleteMessages missed {} messages! This should not happen!",
+                    evictionSet.size() - deleted);
         }
+        evictionSet.clear();
 
-        return oldest;
+        evictions++;
+        evictionTime += System.nanoTime() - evictionStartTime;
+        evictionStartTime = -1;
+    }
+
+    private void countDrop(int partitionID) {
+        if (partitionID >= partitionDrops.length) {
+            partitionDrops = Arrays.copyOf(partitionDrops,
+                    Math.max(partitionID + 1, partitionDrops.length * 2));
+        }
+        partitionDrops[partitionID]++;
+        drops++;
     }
 
     /**
-     * Gets ID of partition with highest partition usage
+     * Removes message from partition and updates the usage counters
      * 
-     * @param getSecond
-     *            when true, method will return second highest partition
-     * @return
+     * @param partitionID
+     * @param partition
+     * @param messageID
+     * @param dropped
+     *            true if the message is dropped to free space
+     * @return the removed message or null if it was not in the partition
      */
-    private int getPartitionIDWithHighestUsage(boolean getSecond) {
-        // get maximal exceeded buffer
-        int highestPartitionID = -1;
-
-        int highestUsage = -1;
-
-        Iterator<Entry<Integer, HashSet<Message>>> it = buffer.entrySet()
-                .iterator();
-        while (it.hasNext()) {
-            Map.Entry<Integer, HashSet<Message>> pairs = it.next();
-            HashSet<Message> partition = (HashSet<Message>) pairs.getValue();
-            int currentPartitionID = (Integer) pairs.getKey();
-
-            int currentUsage = getPartitionUsage(partition);
-
-            ResourceManagementApplication.logDebug("Partiton ("
-                    + currentPartitionID + ") with " + "partitionUsage:"
-                    + currentUsage);
-
-            // find one highest usage (the first is taken)
-            if (highestUsage < currentUsage) {
-
-                ResourceManagementApplication
-                        .logDebug("NEW highest usage Partiton ("
-                                + currentPartitionID + ") with "
-                                + "partitionUsage:" + currentUsage);
-
-                // new highest usage
-                highestUsage = currentUsage;
-                highestPartitionID = currentPartitionID;
-            }
-
+    private Message removeFromPartition(int partitionID,
+            BufferPartition partition, String messageID, boolean dropped) {
+        Message msg = partition.remove(messageID);
+        if (msg == null) {
+            return null;
         }
+        messagePartitions.remove(messageID);
+        evictionPolicy.messageRemoved(partitionID, msg.getSize(), dropped);
+        wholeBufferUsage -= msg.getSize();
 
-        ResourceManagementApplication.logDebug("Partition "
-                + highestPartitionID + " with highest usage " + highestUsage);
-
-        int secondHighestPartitionID = -1;
-
-        if (getSecond) {
-            int secondHighestUsage = -1;
+        return msg;
+    }
 
-            Iterator<Entry<Integer, HashSet<Message>>> it2 = buffer.entrySet()
-                    .iterator();
-            while (it2.hasNext()) {
-                Map.Entry<Integer, HashSet<Message>> pairs = it2.next();
-                HashSet<Message> partition = (HashSet<Message>) pairs
-                        .getValue();
-                int currentPartitionID = (Integer) pairs.getKey();
-
-                int currentUsage = getPartitionUsage(partition);
-
-                ResourceManagementApplication.logDebug("Partiton ("
-                        + currentPartitionID + ") with " + "partitionUsage:"
-                        + currentUsage);
-
-                // find one second highest usage (the first is taken)
-                if ((secondHighestUsage < currentUsage)
-                        && (currentPartitionID != highestPartitionID)) {
-
-                    ResourceManagementApplication
-                            .logDebug("NEW second highest usage Partiton ("
-                                    + currentPartitionID + ") with "
-                                    + "partitionUsage:" + currentUsage);
-
-                    // second highest one
-                    secondHighestUsage = currentUsage;
-                    secondHighestPartitionID = currentPartitionID;
-                }
-            }
+    /**
+     * Returns the maximum size of this buffer
+     * 
+     * @return size in bytes
+     */
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
 
-            ResourceManagementApplication.logDebug("Partition "
-                    + secondHighestPartitionID + " with second highest usage "
-                    + secondHighestUsage);
-        }
+    /**
+     * Returns the sum of the sizes of all buffered messages
+     * 
+     * @return usage in bytes
+     */
+    public int getUsage() {
+        return wholeBufferUsage;
+    }
 
-        if (getSecond) {
-            return secondHighestPartitionID;
-        } else {
-            return highestPartitionID;
-        }
+    /**
+     * Returns the highest usage of this buffer so far
+     * 
+     * @return usage in bytes
+     */
+    public int getPeakUsage() {
+        return peakUsage;
     }
 
     /**
-     * Sums all message sizes in a partition
+     * Adds the usage of every partition to an array indexed by partition ID.
+     * Partitions with an ID outside of the array range are skipped.
+     * 
+     * @param usages
+     *            usages in bytes by partition ID
+     * @param offset
+     *            index of partition 0 in the array
+     * @param nrofIDs
+     *            number of partition IDs in the array
      */
-    private int getPartitionUsage(HashSet<Message> partition) {
-        int usage = 0;
-        for (Message currentMessage : partition) {
-            usage += currentMessage.getSize();
+    public void addPartitionUsages(long[] usages, int offset, int nrofIDs) {
+        for (int i = 0; i < nrofPartitions; i++) {
+            int partitionID = partitionIDs[i];
+            if (partitionID >= 0 && partitionID < nrofIDs) {
+                usages[offset + partitionID] += partitions[i].getUsage();
+            }
         }
-
-        return usage;
     }
 
     /**
-     * Sums up all messages in all partitions (whole buffer)
+     * Returns the number of dropped messages by partition ID. The array may
+     * be shorter than the highest partition ID (no drops) and must not be
+     * modified.
      * 
-     * @return usage of buffer
+     * @return drops by partition ID
      */
-    private int getWholeBufferUsage() {
-        int wholeUsage = 0;
-
-        Iterator<Entry<Integer, HashSet<Message>>> it = buffer.entrySet()
-                .iterator();
-        while (it.hasNext()) {
-            Map.Entry<Integer, HashSet<Message>> pairs = it.next();
-            HashSet<Message> partition = (HashSet<Message>) pairs.getValue();
+    public int[] getPartitionDrops() {
+        return partitionDrops;
+    }
 
-            int partitionUsage = getPartitionUsage(partition);
+    /**
+     * Returns the number of messages dropped to free space
+     * 
+     * @return number of dropped messages
+     */
+    public long getDrops() {
+        return drops;
+    }
 
-            wholeUsage += partitionUsage;
-        }
+    /**
+     * Returns the number of iterations of the drop loop, i.e., dropped
+     * messages and failed attempts
+     * 
+     * @return number of iterations
+     */
+    public long getDropLoopIterations() {
+        return dropLoopIterations;
+    }
 
-        ResourceManagementApplication.logDebug("whole buffer usage: "
-                + wholeUsage);
+    /**
+     * Returns how often messages had to be dropped when adding a message
+     * 
+     * @return number of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
 
-        return wholeUsage;
+    /**
+     * Returns the time spent for evictions
+     * 
+     * @return time in nanoseconds
+     */
+    public long getEvictionTime() {
+        return evictionTime;
     }
 
 }
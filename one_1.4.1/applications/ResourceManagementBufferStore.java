@@ -0,0 +1,125 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import java.util.Arrays;
+
+import core.SimContext;
+
+/**
+ * The <code>ResourceManagementBuffer</code>s of all nodes of a scenario. There
+ * is one store per scenario, shared by all instances of the
+ * <code>ResourceManagementApplication</code>. It is kept in the
+ * <code>SimContext</code> of the run, so no buffers of a previous run are
+ * kept and concurrent runs do not share buffers. The size and the eviction
+ * policy of a buffer are defined by the application instance of the node
+ * that creates it, so in scenarios with several host groups every group's
+ * buffers follow the servers and settings of its own application.
+ * 
+ * Buffers are created when they are used the first time, so nodes that never
+ * buffer a message (e.g., clients that never relay) do not allocate one.
+ * 
+ * @see ResourceManagementBuffer
+ * @author Dominik Schürmann
+ */
+public class ResourceManagementBufferStore {
+
+    /** key of the store in the simulation context */
+    private static final String STORE_KEY = ResourceManagementBufferStore.class
+            .getCanonicalName();
+
+    /** buffers by node address, null if not yet created */
+    private ResourceManagementBuffer[] buffers;
+
+    private ResourceManagementBufferStore() {
+        this.buffers = new ResourceManagementBuffer[0];
+    }
+
+    /**
+     * Returns the store of the current scenario. The store is created by the
+     * first application prototype asking for it.
+     * 
+     * @return the store
+     */
+    public static ResourceManagementBufferStore getStore() {
+        ResourceManagementBufferStore store = getCurrentStore();
+        if (store == null) {
+            store = new ResourceManagementBufferStore();
+            SimContext.getCurrent().setModuleState(STORE_KEY, store);
+        }
+        return store;
+    }
+
+    /**
+     * Returns the store of the current scenario without creating it
+     * 
+     * @return the store or null if no application has created it yet
+     */
+    public static ResourceManagementBufferStore getCurrentStore() {
+        return (ResourceManagementBufferStore) SimContext.getCurrent()
+                .getModuleState(STORE_KEY);
+    }
+
+    /**
+     * Returns the number of addresses the store has room for. Addresses above
+     * have no buffer.
+     * 
+     * @return number of addresses
+     */
+    public int getNrofAddresses() {
+        return buffers.length;
+    }
+
+    /**
+     * Returns the buffer of a node, creates it if the node has no buffer yet
+     * 
+     * @param app
+     *            application of the node, defines the size and the eviction
+     *            policy of a new buffer
+     * @param address
+     *            address of the node
+     * @return the buffer
+     */
+    public ResourceManagementBuffer getBuffer(
+            ResourceManagementApplication app, int address) {
+        if (address >= buffers.length) {
+            buffers = Arrays.copyOf(buffers,
+                    Math.max(address + 1, buffers.length * 2));
+        }
+
+        ResourceManagementBuffer buffer = buffers[address];
+        if (buffer == null) {
+            // set buffer size based on type
+            int size;
+            if (app.isServer(address)) {
+                size = app.getServerBufferSize();
+            } else {
+                size = app.getClientBufferSize();
+            }
+
+            buffer = new ResourceManagementBuffer(size, app
+                    .getEvictionPolicy().replicate(), app.getLog());
+            buffers[address] = buffer;
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer of a node without creating it
+     * 
+     * @param address
+     *            address of the node
+     * @return the buffer or null if the node has no buffer yet
+     */
+    public ResourceManagementBuffer getExistingBuffer(int address) {
+        if (address >= buffers.length) {
+            return null;
+        }
+        return buffers[address];
+    }
+
+}
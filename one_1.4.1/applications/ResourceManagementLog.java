@@ -0,0 +1,209 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+/**
+ * Level-gated debug log of the resource management application.
+ * 
+ * Messages are given as patterns where every <code>{}</code> is replaced by
+ * the next argument. Patterns are only formatted (and arguments only converted
+ * to strings) if the level of the message is enabled, so disabled log calls do
+ * not build any strings. Expensive dumps should additionally be guarded with
+ * {@link #isEnabled(int)}.
+ * 
+ * The level is configured with the <code>logLevel</code> setting of the
+ * application, see {@link ResourceManagementApplication#LOG_LEVEL}. The level
+ * is resolved once when the application prototype is created, every replica
+ * and buffer of the run uses the log instance of the prototype, so a log call
+ * costs only a field comparison when its level is disabled and concurrent
+ * runs can use different levels.
+ * 
+ * @see ResourceManagementApplication
+ * @author Dominik Schürmann
+ */
+public class ResourceManagementLog {
+
+    /** Level: no output at all */
+    public static final int OFF = 0;
+    /** Level: infos when starting */
+    public static final int INFO = 1;
+    /** Level: warnings */
+    public static final int WARNING = 2;
+    /** Level: important events, e.g., dropped messages and buffer dumps */
+    public static final int IMPORTANT = 3;
+    /** Level: everything */
+    public static final int DEBUG = 4;
+
+    /** Placeholder for arguments in patterns */
+    private static final String PLACEHOLDER = "{}";
+
+    /** the log level */
+    private final int level;
+
+    /**
+     * Constructor
+     * 
+     * @param level
+     *            one of {@link #OFF}, {@link #INFO}, {@link #WARNING},
+     *            {@link #IMPORTANT} or {@link #DEBUG}
+     */
+    public ResourceManagementLog(int level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the log level
+     * 
+     * @return log level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns true if messages of the given level are printed
+     * 
+     * @param messageLevel
+     * @return true if enabled
+     */
+    public boolean isEnabled(int messageLevel) {
+        return level >= messageLevel;
+    }
+
+    public void debug(String pattern) {
+        if (level >= DEBUG) {
+            print(pattern);
+        }
+    }
+
+    public void debug(String pattern, Object arg1) {
+        if (level >= DEBUG) {
+            print(pattern, arg1);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (level >= DEBUG) {
+            print(pattern, arg1, arg2);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2,
+            Object arg3) {
+        if (level >= DEBUG) {
+            print(pattern, arg1, arg2, arg3);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2,
+            Object arg3, Object arg4) {
+        if (level >= DEBUG) {
+            print(pattern, arg1, arg2, arg3, arg4);
+        }
+    }
+
+    public void important(String pattern) {
+        if (level >= IMPORTANT) {
+            print(pattern);
+        }
+    }
+
+    public void important(String pattern, Object arg1) {
+        if (level >= IMPORTANT) {
+            print(pattern, arg1);
+        }
+    }
+
+    public void important(String pattern, Object arg1, Object arg2) {
+        if (level >= IMPORTANT) {
+            print(pattern, arg1, arg2);
+        }
+    }
+
+    public void important(String pattern, Object arg1, Object arg2,
+            Object arg3) {
+        if (level >= IMPORTANT) {
+            print(pattern, arg1, arg2, arg3);
+        }
+    }
+
+    public void important(String pattern, Object arg1, Object arg2,
+            Object arg3, Object arg4) {
+        if (level >= IMPORTANT) {
+            print(pattern, arg1, arg2, arg3, arg4);
+        }
+    }
+
+    public void warning(String pattern) {
+        if (level >= WARNING) {
+            print(pattern);
+        }
+    }
+
+    public void warning(String pattern, Object arg1) {
+        if (level >= WARNING) {
+            print(pattern, arg1);
+        }
+    }
+
+    public void info(String pattern) {
+        if (level >= INFO) {
+            print(pattern);
+        }
+    }
+
+    public void info(String pattern, Object arg1) {
+        if (level >= INFO) {
+            print(pattern, arg1);
+        }
+    }
+
+    /**
+     * Prints the message if its level is enabled
+     * 
+     * @param messageLevel
+     * @param pattern
+     * @param args
+     */
+    public void log(int messageLevel, String pattern, Object... args) {
+        if (level >= messageLevel) {
+            print(pattern, args);
+        }
+    }
+
+    private static void print(String pattern, Object... args) {
+        System.out.println(format(pattern, args));
+    }
+
+    /**
+     * Replaces the placeholders of the pattern with the arguments
+     * 
+     * @param pattern
+     * @param args
+     * @return formatted message
+     */
+    public static String format(String pattern, Object... args) {
+        if (args.length == 0) {
+            return pattern;
+        }
+
+        StringBuilder sb = new StringBuilder(pattern.length() + 16
+                * args.length);
+        int start = 0;
+        for (Object arg : args) {
+            int i = pattern.indexOf(PLACEHOLDER, start);
+            if (i < 0) {
+                break;
+            }
+            sb.append(pattern, start, i).append(arg);
+            start = i + PLACEHOLDER.length();
+        }
+        sb.append(pattern, start, pattern.length());
+
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,94 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package applications;
+
+import core.Settings;
+import core.SettingsError;
+
+/**
+ * Weighted fair share eviction: like max-min fair share, but the usage of a
+ * partition is divided by its weight before partitions are compared. Partitions
+ * of server nodes get the weight <code>serverWeight</code>, all other
+ * partitions <code>clientWeight</code>, so servers may use the given multiple
+ * of the buffer space of a client before their messages are dropped.
+ * 
+ * To stay in integer arithmetic, usages are multiplied with the weight of the
+ * other node type instead of being divided by their own weight.
+ * 
+ * @see MaxMinFairShareEvictionPolicy
+ * @author Dominik Schürmann
+ */
+public class WeightedFairShareEvictionPolicy extends
+        MaxMinFairShareEvictionPolicy {
+
+    /** Weight of server partitions, defaults to 1 */
+    public static final String SERVER_WEIGHT = "serverWeight";
+    /** Weight of client partitions, defaults to 1 */
+    public static final String CLIENT_WEIGHT = "clientWeight";
+
+    private int serverWeight = 1;
+    private int clientWeight = 1;
+
+    private ResourceManagementApplication app;
+
+    /**
+     * Constructor
+     * 
+     * @param s
+     *            Settings of the application
+     */
+    public WeightedFairShareEvictionPolicy(Settings s) {
+        super(s);
+        if (s.contains(SERVER_WEIGHT)) {
+            this.serverWeight = s.getInt(SERVER_WEIGHT);
+            if (this.serverWeight < 1) {
+                throw new SettingsError("Weight must be at least 1: "
+                        + s.getFullPropertyName(SERVER_WEIGHT));
+            }
+        }
+        if (s.contains(CLIENT_WEIGHT)) {
+            this.clientWeight = s.getInt(CLIENT_WEIGHT);
+            if (this.clientWeight < 1) {
+                throw new SettingsError("Weight must be at least 1: "
+                        + s.getFullPropertyName(CLIENT_WEIGHT));
+            }
+        }
+    }
+
+    /**
+     * Copy constructor
+     * 
+     * @param proto
+     *            prototype
+     */
+    protected WeightedFairShareEvictionPolicy(
+            WeightedFairShareEvictionPolicy proto) {
+        super(proto);
+        this.serverWeight = proto.serverWeight;
+        this.clientWeight = proto.clientWeight;
+        this.app = proto.app;
+    }
+
+    @Override
+    public void init(ResourceManagementApplication app) {
+        this.app = app;
+    }
+
+    @Override
+    protected long getScale(int partitionID) {
+        if (app.isServer(partitionID)) {
+            return clientWeight;
+        } else {
+            return serverWeight;
+        }
+    }
+
+    @Override
+    public BufferEvictionPolicy replicate() {
+        return new WeightedFairShareEvictionPolicy(this);
+    }
+
+}
@@ -75,6 +75,20 @@ public abstract class Application {
 	 */
 	public abstract void update(DTNHost host);
 	
+	/**
+	 * Returns the earliest time when {@link #update(DTNHost)} may do 
+	 * something, e.g., create a new message. Used by the discrete event 
+	 * engine of the world for skipping updates. This implementation returns
+	 * the current time, i.e., the application is updated every simulation 
+	 * cycle.
+	 * 
+	 * @param host	The host this application instance is attached to.
+	 * @return The time of the next update that is needed
+	 */
+	public double getNextEventTime(DTNHost host) {
+		return SimClock.getTime();
+	}
+	
 	/** 
 	 * <p>
 	 * Returns an unique application ID. The application will only receive
@@ -122,4 +136,26 @@ public abstract class Application {
 			al.gotEvent(event, params, this, host);
 		}
 	}
+	
+	/** 
+	 * Sends a typed event to all listeners. Listeners implementing
+	 * {@link TypedApplicationListener} get the numeric event type, all other
+	 * listeners get the event name.
+	 * 
+	 * @param eventType	Application specific numeric type of the event.
+	 * @param event		Name of the event.
+	 * @param params	Any additional parameters to send.
+	 * @param host		The host which where the app is running.
+	 */
+	public void sendEventToListeners(int eventType, String event,
+			Object params, DTNHost host) {
+		for (ApplicationListener al : this.aListeners) {
+			if (al instanceof TypedApplicationListener) {
+				((TypedApplicationListener)al).gotEvent(eventType, params,
+						this, host);
+			} else {
+				al.gotEvent(event, params, this, host);
+			}
+		}
+	}
 }
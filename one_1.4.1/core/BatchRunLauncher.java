@@ -0,0 +1,215 @@
+/*
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the batch mode runs concurrently. Most of the state of a run is in
+ * its {@link SimContext}, but the classes that still keep state in static 
+ * fields and are reset between runs (see 
+ * {@link DTNSim#registerForReset(String)}) would be shared by concurrent runs
+ * in one JVM. Hence, every run is started in its own worker JVM with the 
+ * same class path, JVM options and configuration files as this one and 
+ * only the run index differs. The output of the workers is printed 
+ * prefixed with the run number. If the launcher is interrupted or its JVM
+ * shuts down (e.g., on Ctrl-C or SIGTERM), all running workers are 
+ * destroyed so that they are not left running without the launcher.
+ */
+public class BatchRunLauncher {
+	/** Name of the class that is started in the worker JVMs */
+	public static final String MAIN_CLASS = DTNSim.class.getName();
+
+	private int firstRun;
+	private int lastRun;
+	private int nrofWorkers;
+	private List<String> command;
+	private List<String> confFiles;
+	private AtomicInteger nrofFailed;
+	/** processes of the running workers */
+	private Set<Process> processes;
+	/** are the workers destroyed (no new workers are started then) */
+	private boolean destroyed;
+
+	/**
+	 * Constructor.
+	 * @param firstRun Index of the first run
+	 * @param lastRun Index of the last run + 1
+	 * @param nrofWorkers Maximum number of runs to run at the same time
+	 * @param confFiles The configuration file names given to the workers
+	 */
+	public BatchRunLauncher(int firstRun, int lastRun, int nrofWorkers,
+			List<String> confFiles) {
+		this.firstRun = firstRun;
+		this.lastRun = lastRun;
+		this.nrofWorkers = nrofWorkers;
+		this.confFiles = confFiles;
+		this.nrofFailed = new AtomicInteger();
+		this.processes = new HashSet<Process>();
+
+		this.command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + "/bin/java");
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(MAIN_CLASS);
+	}
+
+	/**
+	 * Runs all the runs and waits for them to finish
+	 * @return The number of runs that failed
+	 */
+	public int start() {
+		Thread shutdownHook = new Thread() {
+			public void run() {
+				destroyWorkers();
+			}
+		};
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+		ExecutorService workers = Executors.newFixedThreadPool(nrofWorkers);
+		for (int i=firstRun; i<lastRun; i++) {
+			final int runIndex = i;
+			workers.execute(new Runnable() {
+				public void run() {
+					if (!runWorker(runIndex)) {
+						nrofFailed.incrementAndGet();
+					}
+				}
+			});
+		}
+
+		workers.shutdown();
+		try {
+			while (!workers.awaitTermination(1, TimeUnit.MINUTES));
+		} catch (InterruptedException e) {
+			workers.shutdownNow();
+			destroyWorkers();
+			Thread.currentThread().interrupt();
+		}
+
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			/* the JVM is already shutting down and the hook destroys
+			 * the workers */
+		}
+
+		return nrofFailed.get();
+	}
+
+	/**
+	 * Runs one run in a worker JVM and copies its output
+	 * @param runIndex Index of the run
+	 * @return true if the run finished successfully
+	 */
+	private boolean runWorker(int runIndex) {
+		String prefix = "[run " + (runIndex+1) + "] ";
+		List<String> cmd = new ArrayList<String>(command);
+		cmd.add(DTNSim.BATCH_MODE_FLAG);
+		cmd.add((runIndex+1) + DTNSim.RANGE_DELIMETER + (runIndex+1));
+		cmd.addAll(confFiles);
+
+		print(prefix + "Run " + (runIndex+1) + "/" + lastRun + " started");
+		Process p = null;
+		try {
+			ProcessBuilder pb = new ProcessBuilder(cmd);
+			pb.redirectErrorStream(true);
+			p = startWorker(pb);
+			BufferedReader out = new BufferedReader(
+					new InputStreamReader(p.getInputStream()));
+			String line;
+			while ((line = out.readLine()) != null) {
+				print(prefix + line);
+			}
+			out.close();
+
+			int exitValue = p.waitFor();
+			if (exitValue != 0) {
+				print(prefix + "Run failed with exit value " + exitValue);
+				return false;
+			}
+		} catch (IOException e) {
+			if (p == null) {
+				print(prefix + "Can't start worker: " + e.getMessage());
+			}
+			else {
+				print(prefix + "Can't read worker output: " + e.getMessage());
+			}
+			return false;
+		} catch (InterruptedException e) {
+			print(prefix + "Interrupted");
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			if (p != null) {
+				/* does nothing if the worker has exited */
+				finishWorker(p);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Starts a worker process and adds it to the running workers
+	 * @param pb Process builder of the worker
+	 * @return The process of the worker
+	 * @throws IOException if the worker can't be started
+	 */
+	private Process startWorker(ProcessBuilder pb) throws IOException {
+		synchronized (processes) {
+			if (destroyed) {
+				throw new IOException("batch run was interrupted");
+			}
+			Process p = pb.start();
+			processes.add(p);
+			return p;
+		}
+	}
+
+	/**
+	 * Removes a worker process from the running workers and destroys it
+	 * @param p The process of the worker
+	 */
+	private void finishWorker(Process p) {
+		synchronized (processes) {
+			processes.remove(p);
+		}
+		p.destroy();
+	}
+
+	/**
+	 * Destroys the processes of all running workers
+	 */
+	private void destroyWorkers() {
+		synchronized (processes) {
+			destroyed = true;
+			for (Process p : processes) {
+				p.destroy();
+			}
+			processes.clear();
+		}
+	}
+
+	/**
+	 * Prints a line to stdout (lines from different workers are not mixed)
+	 * @param txt Text to print
+	 */
+	private static synchronized void print(String txt) {
+		System.out.println(txt);
+	}
+}
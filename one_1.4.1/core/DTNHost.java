@@ -17,7 +17,6 @@ import routing.RoutingInfo;
  * A DTN capable host.
  */
 public class DTNHost implements Comparable<DTNHost> {
-	private static int nextAddress = 0;
 	private int address;
 
 	private Coord location; 	// where is the host
@@ -34,10 +33,6 @@ public class DTNHost implements Comparable<DTNHost> {
 	private List<NetworkInterface> net;
 	private ModuleCommunicationBus comBus;
 
-	static {
-		DTNSim.registerForReset(DTNHost.class.getCanonicalName());
-		reset();
-	}
 	/**
 	 * Creates a new DTNHost.
 	 * @param msgLs Message listeners
@@ -93,15 +88,15 @@ public class DTNHost implements Comparable<DTNHost> {
 	 * subsequent calls.
 	 * @return The next address.
 	 */
-	private synchronized static int getNextAddress() {
-		return nextAddress++;	
+	private static int getNextAddress() {
+		return SimContext.getCurrent().nextHostAddress++;	
 	}
 
 	/**
-	 * Reset the host and its interfaces
+	 * Resets the host addresses of the current context
 	 */
 	public static void reset() {
-		nextAddress = 0;
+		SimContext.getCurrent().nextHostAddress = 0;
 	}
 
 	/**
@@ -330,6 +325,87 @@ public class DTNHost implements Comparable<DTNHost> {
 		this.router.update();
 	}
 
+	/**
+	 * Returns true if this host can move in parallel with other hosts, i.e.,
+	 * if its movement model does not share state with other hosts and there
+	 * are no movement listeners to inform.
+	 * @return true if the host can move in parallel with others
+	 */
+	public boolean canMoveInParallel() {
+		return (this.movListeners == null || this.movListeners.isEmpty()) &&
+			this.movement.canMoveInParallel();
+	}
+
+	/**
+	 * Returns the time until which the host keeps moving (or staying) the
+	 * way it does now, i.e., the time when it reaches its next waypoint,
+	 * starts moving again after waiting, or its activeness changes. 
+	 * Until then, the host moves along a straight line towards 
+	 * {@link #getDestination()} at {@link #getSpeed()}, if it is moving.
+	 * @return The time of the next change in the movement of the host
+	 */
+	public double getNextMovementEventTime() {
+		double time = SimClock.getTime();
+		double next = this.movement.getNextActivenessChange();
+		if (!isActive()) {
+			return next;
+		}
+		if (time < this.nextTimeToMove) {
+			return Math.min(next, this.nextTimeToMove);
+		}
+		if (this.destination == null) {
+			return time; // next waypoint is set in the next move
+		}
+		return Math.min(next, time + 
+				this.location.distance(this.destination) / this.speed);
+	}
+
+	/**
+	 * Returns true if the host is moving at the moment, i.e., it is active,
+	 * not waiting and has a destination
+	 * @return true if the host is moving
+	 */
+	public boolean isMoving() {
+		return isActive() && SimClock.getTime() >= this.nextTimeToMove && 
+			this.destination != null;
+	}
+
+	/**
+	 * Returns the waypoint the host is moving towards or null if it has not
+	 * had one yet
+	 * @return The destination of the host
+	 */
+	public Coord getDestination() {
+		return this.destination;
+	}
+
+	/**
+	 * Returns the speed the host is moving with towards its destination
+	 * @return The speed of the host
+	 */
+	public double getSpeed() {
+		return this.speed;
+	}
+
+	/**
+	 * Returns the highest speed at which the host may move
+	 * @return The highest speed or Double.MAX_VALUE if it is not known
+	 * @see MovementModel#getMaxSpeed()
+	 */
+	public double getMaxSpeed() {
+		return this.movement.getMaxSpeed();
+	}
+
+	/**
+	 * Returns the next time when the activeness of the host may change
+	 * @return The time of the next change or Double.MAX_VALUE if the 
+	 * activeness does not change anymore
+	 * @see MovementModel#getNextActivenessChange()
+	 */
+	public double getNextActivenessChange() {
+		return this.movement.getNextActivenessChange();
+	}
+
 	/**
 	 * Moves the node towards the next waypoint or waits if it is
 	 * not time to move yet
@@ -475,6 +551,17 @@ public class DTNHost implements Comparable<DTNHost> {
 		this.router.deleteMessage(id, drop);
 	}
 
+	/**
+	 * Deletes several messages from this host at once
+	 * @param ids Identifiers of the messages
+	 * @param drop True if the messages are deleted because of "dropping"
+	 * @return The number of deleted messages
+	 * @see MessageRouter#deleteMessages(List, boolean)
+	 */
+	public int deleteMessages(List<String> ids, boolean drop) {
+		return this.router.deleteMessages(ids, drop);
+	}
+
 	/**
 	 * Returns a string presentation of the host.
 	 * @return Host's name
@@ -7,6 +7,7 @@ import gui.DTNSimGUI;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import ui.DTNSimTextUI;
@@ -20,12 +21,17 @@ public class DTNSim {
 	public static final String BATCH_MODE_FLAG = "-b";
 	/** Delimiter for batch mode index range values (colon) */
 	public static final String RANGE_DELIMETER = ":";
+	/** If this option ({@value}) is given after the batch mode option, the
+	 * runs are run concurrently in the given number of worker JVMs */
+	public static final String PARALLEL_FLAG = "-p";
 	
 	/** Name of the static method that all resettable classes must have
 	 * @see #registerForReset(String) */
 	public static final String RESET_METHOD_NAME = "reset";
 	/** List of class names that should be reset between batch runs */
 	private static List<Class<?>> resetList = new ArrayList<Class<?>>();
+	/** Is the simulator running in batch mode */
+	private static boolean batchMode = false;
 	
 	/**
 	 * Starts the user interface with given arguments.
@@ -37,14 +43,17 @@ public class DTNSim {
 	 * {@link Settings#setRunIndex(int)}). Following arguments are the settings 
 	 * files for the simulation run (if any). For GUI mode, the number before 
 	 * settings files (if given) is the run index to use for that run.
+	 * In batch mode, the number of runs can be followed by the
+	 * {@value #PARALLEL_FLAG} option and the number of runs to run at the 
+	 * same time (see {@link BatchRunLauncher}).
 	 * @param args Command line arguments
 	 */
 	public static void main(String[] args) {
-		boolean batchMode = false;
 		int nrofRuns[] = {0,1};
 		String confFiles[];
 		int firstConfIndex = 0;
 		int guiIndex = 0;
+		int nrofWorkers = 1;
 
 		/* set US locale to parse decimals in consistent way */
 		java.util.Locale.setDefault(java.util.Locale.US);
@@ -59,6 +68,11 @@ public class DTNSim {
                     nrofRuns = parseNrofRuns(args[1]);
                     firstConfIndex = 2;
                 }
+				if (args.length > firstConfIndex + 1 && 
+						args[firstConfIndex].equals(PARALLEL_FLAG)) {
+					nrofWorkers = parseNrofWorkers(args[firstConfIndex + 1]);
+					firstConfIndex += 2;
+				}
 			}
 			else { /* GUI mode */				
 				try { /* is there a run index for the GUI mode ? */
@@ -76,11 +90,25 @@ public class DTNSim {
 		
 		initSettings(confFiles, firstConfIndex);
 		
-		if (batchMode) {
+		if (batchMode && nrofWorkers > 1 && nrofRuns[1] - nrofRuns[0] > 1) {
+			long startTime = System.currentTimeMillis();
+			List<String> workerConfFiles = Arrays.asList(confFiles).subList(
+					firstConfIndex, confFiles.length);
+			int nrofFailed = new BatchRunLauncher(nrofRuns[0], nrofRuns[1],
+					nrofWorkers, workerConfFiles).start();
+			double duration = (System.currentTimeMillis() - startTime)/1000.0;
+			print("---\nAll done in " + String.format("%.2f", duration) + "s");
+			if (nrofFailed > 0) {
+				System.err.println(nrofFailed + " run(s) failed");
+				System.exit(-1);
+			}
+		}
+		else if (batchMode) {
 			long startTime = System.currentTimeMillis();
+			SimContext settingsContext = SimContext.getCurrent();
 			for (int i=nrofRuns[0]; i<nrofRuns[1]; i++) {
 				print("Run " + (i+1) + "/" + nrofRuns[1]);
-				Settings.setRunIndex(i);
+				SimContext.setCurrent(settingsContext.newRun(i));
 				resetForNextRun();
 				new DTNSimTextUI().start();
 			}
@@ -129,10 +157,21 @@ public class DTNSim {
 		}
 	}
 	
+	/**
+	 * Returns true if the simulator was started in batch mode (with the
+	 * {@value #BATCH_MODE_FLAG} option), false if the GUI is used
+	 * @return true if running in batch mode
+	 */
+	public static boolean isBatchMode() {
+		return batchMode;
+	}
+	
 	/**
 	 * Registers a class for resetting. Reset is performed after every
 	 * batch run of the simulator to reset the class' state to initial
-	 * state. All classes that have static fields that should be resetted
+	 * state. State kept in the {@link SimContext} doesn't need resetting 
+	 * since every run gets a new context. 
+	 * All classes that have static fields that should be resetted
 	 * to initial values between the batch runs should register using 
 	 * this method. The given class must have a static implementation
 	 * for the resetting method (a method called {@value #RESET_METHOD_NAME} 
@@ -216,6 +255,28 @@ public class DTNSim {
 		return val;
 	}
 	
+	/**
+	 * Parses the number of concurrent runs from a command line argument
+	 * @param arg The argument to parse
+	 * @return The number of concurrent runs
+	 */
+	private static int parseNrofWorkers(String arg) {
+		int val = 0;
+		try {
+			val = Integer.parseInt(arg);
+		} catch (NumberFormatException e) {
+			/* checked below */
+		}
+		
+		if (val < 1) {
+			System.err.println("Invalid argument '" + arg + "' for" +
+					" number of concurrent runs");
+			System.exit(-1);
+		}
+		
+		return val;
+	}
+	
 	/**
 	 * Prints text to stdout
 	 * @param txt Text to print
@@ -0,0 +1,318 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package core;
+
+import java.util.List;
+
+/**
+ * Discrete event engine of the world (see {@link SimScenario#ENGINE_S}).
+ * Keeps the next event of every kind in an {@link IndexedEventQueue} and
+ * tells the world how many update intervals it can skip because nothing
+ * can happen in them. The world moves the hosts over the skipped intervals
+ * in one step and continues with the usual updates before the next event,
+ * so the events are handled at the same update intervals as with the time
+ * step engine.
+ *
+ * The event types are the next external event, transfer completions
+ * (hosts with connections that are not transferring need every update),
+ * movement changes, the next events of the routers and applications 
+ * (TTL checks, message generation) and contacts going up or down. 
+ * Contacts are predicted from the linear movement of the hosts until 
+ * their next waypoint or end of waiting, and after that from the highest
+ * speeds of the hosts (see {@link DTNHost#getMaxSpeed()}). For hosts whose
+ * highest speed is known, only activeness changes are movement changes,
+ * for other hosts also waypoint arrivals and ends of waiting. Contacts are
+ * predicted only when all the other events allow skipping, since that
+ * compares all pairs of hosts.
+ */
+public class DiscreteEventEngine {
+	/** Event type of the next external event (ID 0) */
+	public static final int EXTERNAL_EVENT = 0;
+	/** Event type of the next transfer completion of a host */
+	public static final int TRANSFER_EVENT = 1;
+	/** Event type of the next change in the movement of a host */
+	public static final int MOVEMENT_EVENT = 2;
+	/** Event type of the next event of the router of a host */
+	public static final int ROUTER_EVENT = 3;
+	/** Event type of the next contact of a host going up or down */
+	public static final int CONTACT_EVENT = 4;
+	private static final int NROF_TYPES = 5;
+	/** update intervals to wait until contacts are predicted again if the
+	 * previous prediction did not allow skipping. The wait is doubled after
+	 * every such prediction up to {@link #MAX_CONTACT_RETRY_INTERVALS}. */
+	private static final int CONTACT_RETRY_INTERVALS = 10;
+	/** maximum update intervals to wait until contacts are predicted again */
+	private static final int MAX_CONTACT_RETRY_INTERVALS = 1000;
+
+	private List<DTNHost> hosts;
+	private double updateInterval;
+	private IndexedEventQueue events;
+	/** time after which contacts are predicted again */
+	private double nextContactPrediction;
+	/** update intervals to wait after the next failed prediction */
+	private int contactRetryIntervals;
+
+	/* linear movement of the hosts by address for the contact prediction */
+	private double[] x;
+	private double[] y;
+	private double[] vx;
+	private double[] vy;
+	private double[] movementEnd;
+	private double[] maxSpeed;
+	private double[] maxRange;
+
+	/**
+	 * Constructor.
+	 * @param hosts The hosts of the world indexed by their address
+	 * @param updateInterval The update interval of the world
+	 */
+	public DiscreteEventEngine(List<DTNHost> hosts, double updateInterval) {
+		int nrofHosts = hosts.size();
+		this.hosts = hosts;
+		this.updateInterval = updateInterval;
+		this.events = new IndexedEventQueue(NROF_TYPES,
+				Math.max(nrofHosts, 1));
+		this.nextContactPrediction = 0;
+		this.contactRetryIntervals = CONTACT_RETRY_INTERVALS;
+		this.x = new double[nrofHosts];
+		this.y = new double[nrofHosts];
+		this.vx = new double[nrofHosts];
+		this.vy = new double[nrofHosts];
+		this.movementEnd = new double[nrofHosts];
+		this.maxSpeed = new double[nrofHosts];
+		this.maxRange = new double[nrofHosts];
+	}
+
+	/**
+	 * Returns the number of update intervals the world can skip from the
+	 * current time, i.e., how many intervals pass before the next event so
+	 * that the hosts do not need to be updated in them.
+	 * @param nextExternalEvent Time of the next external event
+	 * @param endTime End time of the simulation
+	 * @return The number of intervals that can be skipped (0 if none)
+	 */
+	public int getNrofSkippableIntervals(double nextExternalEvent,
+			double endTime) {
+		double time = SimClock.getTime();
+		double minSkipTime = time + 2 * this.updateInterval;
+
+		/* the queue is valid only after all events have been updated, 
+		   until then the earliest updated event is tracked separately */
+		double next = Math.min(nextExternalEvent, endTime);
+		this.events.schedule(EXTERNAL_EVENT, 0, nextExternalEvent);
+		if (next < minSkipTime) {
+			return 0;
+		}
+
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			double t = getTransferEventTime(hosts.get(i));
+			this.events.schedule(TRANSFER_EVENT, i, t);
+			next = Math.min(next, t);
+		}
+		if (next < minSkipTime) {
+			return 0;
+		}
+
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			DTNHost host = hosts.get(i);
+			double t;
+			if (host.getMaxSpeed() < Double.MAX_VALUE) {
+				t = host.getNextActivenessChange();
+			}
+			else {
+				t = host.getNextMovementEventTime();
+			}
+			this.events.schedule(MOVEMENT_EVENT, i, t);
+			next = Math.min(next, t);
+			t = host.getRouter().getNextEventTime();
+			this.events.schedule(ROUTER_EVENT, i, t);
+			next = Math.min(next, t);
+		}
+		if (next < minSkipTime || time < this.nextContactPrediction) {
+			return 0;
+		}
+
+		predictContacts();
+		next = Math.min(this.events.nextEventsTime(), endTime);
+		if (next < minSkipTime) {
+			this.nextContactPrediction = time +
+				this.contactRetryIntervals * this.updateInterval;
+			this.contactRetryIntervals = Math.min(2 * 
+					this.contactRetryIntervals, MAX_CONTACT_RETRY_INTERVALS);
+			return 0;
+		}
+		this.contactRetryIntervals = CONTACT_RETRY_INTERVALS;
+
+		/* the update after the skipped intervals must not pass the event */
+		return (int)((next - time) / this.updateInterval) - 1;
+	}
+
+	/**
+	 * Returns the time of the next transfer completion of a host
+	 * @param host The host
+	 * @return The earliest time a transfer of the host is done, the current
+	 * time if the host has a connection without a transfer whose completion
+	 * time is known, or Double.MAX_VALUE if the host has no connections
+	 */
+	private double getTransferEventTime(DTNHost host) {
+		double next = Double.MAX_VALUE;
+		for (NetworkInterface ni : host.getInterfaces()) {
+			for (Connection con : ni.getConnections()) {
+				if (con.getMessage() == null ||
+						!(con instanceof CBRConnection)) {
+					return SimClock.getTime();
+				}
+				next = Math.min(next,
+						((CBRConnection)con).getTransferDoneTime());
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Predicts the next contact event of every host. For every pair of
+	 * hosts, the hosts are assumed to move linearly until the first of them
+	 * reaches its next waypoint or stops waiting, and after that at most at
+	 * their highest speeds. Connected hosts have a contact event when they
+	 * may move out of the range of the connection, other hosts when they 
+	 * may come within the largest range of their interfaces.
+	 */
+	private void predictContacts() {
+		double time = SimClock.getTime();
+		int nrofHosts = hosts.size();
+
+		for (int i=0; i < nrofHosts; i++) {
+			DTNHost host = hosts.get(i);
+			Coord loc = host.getLocation();
+			x[i] = loc.getX();
+			y[i] = loc.getY();
+			vx[i] = 0;
+			vy[i] = 0;
+			if (host.isMoving()) {
+				Coord dest = host.getDestination();
+				double distance = loc.distance(dest);
+				if (distance > 0) {
+					vx[i] = (dest.getX() - x[i]) * host.getSpeed() / distance;
+					vy[i] = (dest.getY() - y[i]) * host.getSpeed() / distance;
+				}
+			}
+			movementEnd[i] = host.getNextMovementEventTime() - time;
+			maxSpeed[i] = host.getMaxSpeed();
+			maxRange[i] = 0;
+			for (NetworkInterface ni : host.getInterfaces()) {
+				maxRange[i] = Math.max(maxRange[i], ni.getTransmitRange());
+			}
+			this.events.cancel(CONTACT_EVENT, i);
+		}
+
+		for (int i=0; i < nrofHosts; i++) {
+			DTNHost host = hosts.get(i);
+			for (int j=i+1; j < nrofHosts; j++) {
+				double horizon = Math.min(movementEnd[i], movementEnd[j]);
+				double range = getConnectionRange(host, hosts.get(j));
+				double t;
+				if (range >= 0) {
+					t = getContactTime(i, j, range, false, horizon);
+				}
+				else {
+					range = Math.min(maxRange[i], maxRange[j]);
+					t = getContactTime(i, j, range, true, horizon);
+				}
+				if (t < Double.MAX_VALUE) {
+					scheduleContact(i, time + t);
+					scheduleContact(j, time + t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the range of the connection between two hosts
+	 * @return The smaller range of the interfaces of the connection or -1
+	 * if the hosts are not connected
+	 */
+	private double getConnectionRange(DTNHost host, DTNHost other) {
+		double range = -1;
+		for (NetworkInterface ni : host.getInterfaces()) {
+			for (Connection con : ni.getConnections()) {
+				if (con.getOtherNode(host) == other) {
+					NetworkInterface otherNi = con.getOtherInterface(ni);
+					range = Math.max(range, Math.min(ni.getTransmitRange(),
+							otherNi.getTransmitRange()));
+				}
+			}
+		}
+		return range;
+	}
+
+	/**
+	 * Returns the time from now when two hosts may come within or move out
+	 * of the given range. The hosts move linearly until the horizon and 
+	 * after that at most at their highest speeds.
+	 * @param i Address of the first host
+	 * @param j Address of the second host
+	 * @param range The range
+	 * @param up True for the time when they come within the range, false for
+	 * the time when they move out of it
+	 * @param horizon Time from now until which the hosts move linearly
+	 * @return The time from now or Double.MAX_VALUE if it is not before the
+	 * horizon and the highest speed of either host is not known
+	 */
+	private double getContactTime(int i, int j, double range, boolean up,
+			double horizon) {
+		double dx = x[j] - x[i];
+		double dy = y[j] - y[i];
+		double dvx = vx[j] - vx[i];
+		double dvy = vy[j] - vy[i];
+
+		/* |d + dv * t| = range  <=>  a*t^2 + b*t + c = 0 */
+		double a = dvx * dvx + dvy * dvy;
+		double b = 2 * (dx * dvx + dy * dvy);
+		double c = dx * dx + dy * dy - range * range;
+
+		if (up && c <= 0) {
+			return 0; // already within range
+		}
+		if (!up && c > 0) {
+			return 0; // already out of range
+		}
+		double disc = b * b - 4 * a * c;
+		if (a > 0 && disc >= 0) {
+			double t;
+			if (up) {
+				t = (-b - Math.sqrt(disc)) / (2 * a);
+			}
+			else {
+				t = (-b + Math.sqrt(disc)) / (2 * a);
+			}
+			if (t >= 0 && t < horizon) {
+				return t;
+			}
+		}
+
+		/* no contact before the horizon, bound it by the highest speeds */
+		double speeds = maxSpeed[i] + maxSpeed[j];
+		if (speeds >= Double.MAX_VALUE || horizon >= Double.MAX_VALUE / 2) {
+			return Double.MAX_VALUE;
+		}
+		if (speeds == 0) {
+			return Double.MAX_VALUE; // neither host moves after the horizon
+		}
+		double distance = Math.sqrt((dx + dvx * horizon) * (dx + dvx * horizon)
+				+ (dy + dvy * horizon) * (dy + dvy * horizon));
+		double margin = up ? distance - range : range - distance;
+		return horizon + Math.max(margin, 0) / speeds;
+	}
+
+	/**
+	 * Schedules a contact event of a host unless it already has an earlier
+	 * one
+	 */
+	private void scheduleContact(int address, double time) {
+		if (time < this.events.getTime(CONTACT_EVENT, address)) {
+			this.events.schedule(CONTACT_EVENT, address, time);
+		}
+	}
+}
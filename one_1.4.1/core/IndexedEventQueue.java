@@ -0,0 +1,253 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package core;
+
+import java.util.Arrays;
+
+/**
+ * Indexed priority queue of typed events. Every event is identified by its
+ * type and an ID (e.g., the address of a host) and there is at most one
+ * event for every type and ID. Events are kept in a binary min-heap by
+ * their time, and the position of every event in the heap is stored, so
+ * (re)scheduling and cancelling an event cost O(log n) and finding the
+ * next event O(1). Events with the same time are ordered by their type and
+ * then by their ID.
+ */
+public class IndexedEventQueue {
+	/** Value returned for the type and ID if the queue is empty */
+	public static final int NO_EVENT = -1;
+
+	private final int nrofTypes;
+	private final int nrofIds;
+	/** slots of the events in heap order */
+	private int[] heap;
+	/** position of the event in the heap by slot or -1 if not queued */
+	private int[] positions;
+	/** time of the event by slot */
+	private double[] times;
+	private int size;
+
+	/**
+	 * Constructor. Creates an empty queue.
+	 * @param nrofTypes Number of event types (types are 0..nrofTypes-1)
+	 * @param nrofIds Number of IDs per type (IDs are 0..nrofIds-1)
+	 */
+	public IndexedEventQueue(int nrofTypes, int nrofIds) {
+		this.nrofTypes = nrofTypes;
+		this.nrofIds = nrofIds;
+		int nrofSlots = nrofTypes * nrofIds;
+		this.heap = new int[nrofSlots];
+		this.positions = new int[nrofSlots];
+		this.times = new double[nrofSlots];
+		Arrays.fill(this.positions, -1);
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the number of queued events
+	 * @return the number of queued events
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns true if there are no queued events
+	 * @return true if the queue is empty
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Schedules an event. If the event is already queued, it is moved to
+	 * the new time.
+	 * @param type Type of the event
+	 * @param id ID of the event
+	 * @param time Time of the event
+	 */
+	public void schedule(int type, int id, double time) {
+		int slot = getSlot(type, id);
+		int pos = this.positions[slot];
+		if (pos < 0) {
+			pos = this.size++;
+			this.heap[pos] = slot;
+			this.positions[slot] = pos;
+			this.times[slot] = time;
+			siftUp(pos);
+			return;
+		}
+
+		double oldTime = this.times[slot];
+		this.times[slot] = time;
+		if (time < oldTime) {
+			siftUp(pos);
+		}
+		else if (time > oldTime) {
+			siftDown(pos);
+		}
+	}
+
+	/**
+	 * Cancels an event. Does nothing if the event is not queued.
+	 * @param type Type of the event
+	 * @param id ID of the event
+	 */
+	public void cancel(int type, int id) {
+		int slot = getSlot(type, id);
+		int pos = this.positions[slot];
+		if (pos < 0) {
+			return;
+		}
+		this.positions[slot] = -1;
+		this.size--;
+		if (pos == this.size) {
+			return; // the last event of the heap
+		}
+
+		int last = this.heap[this.size];
+		this.heap[pos] = last;
+		this.positions[last] = pos;
+		siftUp(pos);
+		siftDown(this.positions[last]);
+	}
+
+	/**
+	 * Returns the time of an event
+	 * @param type Type of the event
+	 * @param id ID of the event
+	 * @return The time of the event or Double.MAX_VALUE if it is not queued
+	 */
+	public double getTime(int type, int id) {
+		int slot = getSlot(type, id);
+		if (this.positions[slot] < 0) {
+			return Double.MAX_VALUE;
+		}
+		return this.times[slot];
+	}
+
+	/**
+	 * Returns the time of the next event
+	 * @return The time of the next event or Double.MAX_VALUE if the queue
+	 * is empty
+	 */
+	public double nextEventsTime() {
+		if (this.size == 0) {
+			return Double.MAX_VALUE;
+		}
+		return this.times[this.heap[0]];
+	}
+
+	/**
+	 * Returns the type of the next event
+	 * @return The type of the next event or {@link #NO_EVENT}
+	 */
+	public int nextEventsType() {
+		if (this.size == 0) {
+			return NO_EVENT;
+		}
+		return this.heap[0] / this.nrofIds;
+	}
+
+	/**
+	 * Returns the ID of the next event
+	 * @return The ID of the next event or {@link #NO_EVENT}
+	 */
+	public int nextEventsId() {
+		if (this.size == 0) {
+			return NO_EVENT;
+		}
+		return this.heap[0] % this.nrofIds;
+	}
+
+	/**
+	 * Removes the next event from the queue
+	 */
+	public void removeNext() {
+		if (this.size == 0) {
+			return;
+		}
+		int slot = this.heap[0];
+		cancel(slot / this.nrofIds, slot % this.nrofIds);
+	}
+
+	/**
+	 * Removes all events from the queue
+	 */
+	public void clear() {
+		for (int i=0; i < this.size; i++) {
+			this.positions[this.heap[i]] = -1;
+		}
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the slot of an event
+	 */
+	private int getSlot(int type, int id) {
+		if (type < 0 || type >= this.nrofTypes || id < 0 ||
+				id >= this.nrofIds) {
+			throw new SimError("Invalid event type " + type + " or ID " + id);
+		}
+		return type * this.nrofIds + id;
+	}
+
+	/**
+	 * Returns true if the event in the first slot is before the event in 
+	 * the second slot
+	 */
+	private boolean isBefore(int slot, int other) {
+		double time = this.times[slot];
+		double otherTime = this.times[other];
+		return time < otherTime || (time == otherTime && slot < other);
+	}
+
+	/**
+	 * Moves the event at the given heap position up until its parent is
+	 * before it
+	 */
+	private void siftUp(int pos) {
+		int slot = this.heap[pos];
+		while (pos > 0) {
+			int parent = (pos - 1) / 2;
+			int parentSlot = this.heap[parent];
+			if (isBefore(parentSlot, slot)) {
+				break;
+			}
+			this.heap[pos] = parentSlot;
+			this.positions[parentSlot] = pos;
+			pos = parent;
+		}
+		this.heap[pos] = slot;
+		this.positions[slot] = pos;
+	}
+
+	/**
+	 * Moves the event at the given heap position down until it is before
+	 * its children
+	 */
+	private void siftDown(int pos) {
+		int slot = this.heap[pos];
+		while (true) {
+			int child = 2 * pos + 1;
+			if (child >= this.size) {
+				break;
+			}
+			if (child + 1 < this.size &&
+					isBefore(this.heap[child + 1], this.heap[child])) {
+				child++;
+			}
+			int childSlot = this.heap[child];
+			if (isBefore(slot, childSlot)) {
+				break;
+			}
+			this.heap[pos] = childSlot;
+			this.positions[childSlot] = pos;
+			pos = child;
+		}
+		this.heap[pos] = slot;
+		this.positions[slot] = pos;
+	}
+}
@@ -16,6 +16,8 @@ import java.util.Set;
 public class Message implements Comparable<Message> {
 	/** Value for infinite TTL of message */
 	public static final int INFINITE_TTL = -1;
+	/** Value of the application message type if none is set */
+	public static final int NO_APP_MESSAGE_TYPE = 0;
 	private DTNHost from;
 	private DTNHost to;
 	/** Identifier of the message */
@@ -24,8 +26,6 @@ public class Message implements Comparable<Message> {
 	private int size;
 	/** List of nodes this message has passed */
 	private List<DTNHost> path; 
-	/** Next unique identifier to be given */
-	private static int nextUniqueId;
 	/** Unique ID of this message */
 	private int uniqueId;
 	/** The time this message was received */
@@ -49,10 +49,9 @@ public class Message implements Comparable<Message> {
 	/** Application ID of the application that created the message */
 	private String	appID;
 	
-	static {
-		reset();
-		DTNSim.registerForReset(Message.class.getCanonicalName());
-	}
+	/** Application specific message type, {@link #NO_APP_MESSAGE_TYPE} if
+	 * not set. Cheaper to check than a type property. */
+	private int appMessageType;
 	
 	/**
 	 * Creates a new Message.
@@ -68,7 +67,7 @@ public class Message implements Comparable<Message> {
 		this.id = id;
 		this.size = size;
 		this.path = new ArrayList<DTNHost>();
-		this.uniqueId = nextUniqueId;
+		this.uniqueId = SimContext.getCurrent().nextMessageId++;
 		
 		this.timeCreated = SimClock.getTime();
 		this.timeReceived = this.timeCreated;
@@ -77,8 +76,8 @@ public class Message implements Comparable<Message> {
 		this.requestMsg = null;
 		this.properties = null;
 		this.appID = null;
+		this.appMessageType = NO_APP_MESSAGE_TYPE;
 		
-		Message.nextUniqueId++;
 		addNodeOnPath(from);
 	}
 	
@@ -262,6 +261,7 @@ public class Message implements Comparable<Message> {
 		this.requestMsg  = m.requestMsg;
 		this.initTtl = m.initTtl;
 		this.appID = m.appID;
+		this.appMessageType = m.appMessageType;
 		
 		if (m.properties != null) {
 			Set<String> keys = m.properties.keySet();
@@ -340,10 +340,10 @@ public class Message implements Comparable<Message> {
 	}
 	
 	/**
-	 * Resets all static fields to default values
+	 * Resets the unique identifiers of the current context
 	 */
 	public static void reset() {
-		nextUniqueId = 0;
+		SimContext.getCurrent().nextMessageId = 0;
 	}
 
 	/**
@@ -360,4 +360,21 @@ public class Message implements Comparable<Message> {
 		this.appID = appID;
 	}
 	
+	/**
+	 * Returns the application specific type of this message
+	 * @return the type or {@link #NO_APP_MESSAGE_TYPE} if not set
+	 */
+	public int getAppMessageType() {
+		return appMessageType;
+	}
+	
+	/**
+	 * Sets the application specific type of this message. The meaning of
+	 * the values is defined by the application that created the message.
+	 * @param appMessageType the type to set
+	 */
+	public void setAppMessageType(int appMessageType) {
+		this.appMessageType = appMessageType;
+	}
+	
 }
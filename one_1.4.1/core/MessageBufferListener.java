@@ -0,0 +1,22 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package core;
+
+/**
+ * Interface for applications that want to be informed when a message is 
+ * removed from the message buffer of the router of their host, e.g., to keep
+ * an own buffer in sync. Applications implementing this interface are
+ * subscribed automatically when they are added to a router.
+ */
+public interface MessageBufferListener {
+	
+	/**
+	 * Method is called when a message is removed from the buffer of a router
+	 * @param m The message that was removed
+	 * @param host The host whose router buffered the message
+	 * @param dropped True if the message was dropped, false if removed
+	 */
+	public void messageRemoved(Message m, DTNHost host, boolean dropped);
+}
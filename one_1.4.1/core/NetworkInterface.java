@@ -8,6 +8,7 @@ import interfaces.ConnectivityGrid;
 import interfaces.ConnectivityOptimizer;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
@@ -34,8 +35,8 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 	
 	private static final int CON_UP = 1;
 	private static final int CON_DOWN = 2;
-	private static int nextAddress = 0;
-	private static Random rng;
+	/** {@link SimRandom} module name of the interfaces' streams */
+	private static final String RNG_MODULE = "NetworkInterface";
 	protected DTNHost host = null;
 
 	protected String interfacetype;
@@ -48,19 +49,17 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 	/** scanning interval, or 0.0 if n/a */
 	private double scanInterval;
 	private double lastScanTime;
+	/** interfaces found by the last findConnectionCandidates() call */
+	private List<NetworkInterface> candidates;
+	/** are the candidates found for the next update */
+	private boolean hasCandidates;
 
 
-	static {
-		DTNSim.registerForReset(NetworkInterface.class.getCanonicalName());
-		reset();
-	}
-	
 	/**
-	 * Resets the static fields of the class
+	 * Resets the interface addresses of the current context
 	 */
 	public static void reset() {
-		nextAddress = 0;
-		rng = new Random(0);
+		SimContext.getCurrent().nextInterfaceAddress = 0;
 	}
 	
 	/**
@@ -104,6 +103,7 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 		this.transmitSpeed = ni.transmitSpeed;
 		
 		/* draw lastScanTime of [0 -- scanInterval] */
+		Random rng = SimRandom.getRandom(RNG_MODULE, this.address);
 		this.lastScanTime = rng.nextDouble() * scanInterval;
 	}
 
@@ -149,8 +149,8 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 	 * subsequent calls.
 	 * @return The next address.
 	 */
-	private synchronized static int getNextNetAddress() {
-		return nextAddress++;	
+	private static int getNextNetAddress() {
+		return SimContext.getCurrent().nextInterfaceAddress++;	
 	}
 
 	/**
@@ -309,6 +309,60 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 	 */
 	abstract public void update();
 
+	/**
+	 * Updates the location of this interface in the connectivity optimizer.
+	 * Interfaces normally do this at the beginning of {@link #update()}.
+	 */
+	public void updateLocation() {
+		if (optimizer != null) {
+			optimizer.updateLocation(this);
+		}
+	}
+
+	/**
+	 * Looks up the interfaces this interface can connect to in the next
+	 * {@link #update()}, i.e., the near interfaces that are within range if
+	 * this interface is scanning. Only the state of this interface is 
+	 * changed, so the candidates of different interfaces can be looked up
+	 * in parallel as long as no interface is moved or updated meanwhile.
+	 */
+	public void findConnectionCandidates() {
+		if (this.candidates == null) {
+			this.candidates = new ArrayList<NetworkInterface>();
+		}
+		this.candidates.clear();
+		this.hasCandidates = true;
+		if (optimizer == null) {
+			return;
+		}
+		
+		Collection<NetworkInterface> near = optimizer.getNearInterfaces(this);
+		if (near.isEmpty() || !isScanning()) {
+			return;
+		}
+		for (NetworkInterface ni : near) {
+			if (ni != this && isWithinRange(ni)) {
+				this.candidates.add(ni);
+			}
+		}
+	}
+
+	/**
+	 * Returns the interfaces new connections are tried to in 
+	 * {@link #update()}. These are the candidates of 
+	 * {@link #findConnectionCandidates()} if it was called after the 
+	 * previous update, otherwise the near interfaces from the connectivity
+	 * optimizer.
+	 * @return The interfaces to try to connect to
+	 */
+	protected Collection<NetworkInterface> getNearInterfaces() {
+		if (this.hasCandidates) {
+			this.hasCandidates = false;
+			return this.candidates;
+		}
+		return optimizer.getNearInterfaces(this);
+	}
+
 	/**
 	 * Notifies all the connection listeners about a change in connections.
 	 * @param type Type of the change (e.g. {@link #CON_DOWN} )
@@ -12,10 +12,8 @@ import java.io.PrintStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Properties;
 import java.util.Scanner;
-import java.util.Set;
 import java.util.Stack;
 
 /**
@@ -33,10 +31,11 @@ import java.util.Stack;
  * values (see {@link #setRunIndex(int)}). In file paths directory separator
  * should always be forward slash ("/").
  * </P> 
+ * <P> The settings and the run index are kept in the current
+ * {@link SimContext}. 
+ * </P>
  */
 public class Settings {
-	/** properties object where the setting files are read into */
-	protected static Properties props;
 	/** file name of the default settings file ({@value}) */
 	public static final String DEF_SETTINGS_FILE ="default_settings.txt";
 	
@@ -51,12 +50,6 @@ public class Settings {
 	 * @see #valueFillString(String) */
 	public static final String FILL_DELIMITER = "%%";
 	
-	/** Stream where all read settings are written to */
-	private static PrintStream out = null;
-	private static Set<String> writtenSettings = new HashSet<String>();
-	
-	/** run index for run-specific settings */
-	private static int runIndex = 0;
 	private String namespace = null; // namespace to look the settings from
 	private String secondaryNamespace = null;
 	private Stack<String> oldNamespaces;
@@ -97,8 +90,9 @@ public class Settings {
 	 * -1 to disable run indexing
 	 */
 	public static void setRunIndex(int index) {
-		runIndex = index;
-		writtenSettings.clear();
+		SimContext c = SimContext.getCurrent();
+		c.runIndex = index;
+		c.writtenSettings.clear();
 	}
 	
 	/**
@@ -145,7 +139,8 @@ public class Settings {
 			return null;
 		}
 		
-		if (props.getProperty(getFullPropertyName(setting, false)) != null) {
+		if (getProperties().getProperty(getFullPropertyName(setting, false)) 
+				!= null) {
 			return getFullPropertyName(setting, false);
 		}
 		
@@ -203,6 +198,7 @@ public class Settings {
 	 */
 	public static void init(String propFile) throws SettingsError {
 		String outFile;
+		Properties props;
 		try {
 			if (new File(DEF_SETTINGS_FILE).exists()) {
 				Properties defProperties = new Properties();
@@ -218,14 +214,16 @@ public class Settings {
 		} catch (IOException e) {
 			throw new SettingsError(e);
 		}
+		setProperties(props);
 
 		outFile = props.getProperty(SETTING_OUTPUT_S);
 		if (outFile != null) {
 			if (outFile.trim().length() == 0) {
-				out = System.out;
+				SimContext.getCurrent().settingsOut = System.out;
 			} else {
 				try {
-					out = new PrintStream(new File(outFile));
+					SimContext.getCurrent().settingsOut = 
+						new PrintStream(new File(outFile));
 				} catch (FileNotFoundException e) {
 					throw new SettingsError("Can't open Settings output file:" +
 							e);
@@ -243,23 +241,41 @@ public class Settings {
 	 */
 	public static void addSettings(String propFile) throws SettingsError {
 		try {
-			props.load(new FileInputStream(propFile));
+			getProperties().load(new FileInputStream(propFile));
 		} catch (IOException e) {
 			throw new SettingsError(e);
 		}
 	}
 	
+	/**
+	 * Returns the properties the setting files are read into
+	 * @return The properties of the current context (or null if the 
+	 * settings aren't initialized)
+	 */
+	protected static Properties getProperties() {
+		return SimContext.getCurrent().props;
+	}
+	
+	/**
+	 * Sets the properties all Settings objects of the current context use
+	 * @param props The properties
+	 */
+	protected static void setProperties(Properties props) {
+		SimContext.getCurrent().props = props;
+	}
+	
 	/**
 	 * Writes the given setting string to the settings output (if any)
 	 * @param setting The string to write
 	 */
 	private static void outputSetting(String setting) {
-		if (out != null && !writtenSettings.contains(setting)) {
-			if (writtenSettings.size() == 0) {
-				out.println("# Settings for run " + (runIndex + 1));
+		SimContext c = SimContext.getCurrent();
+		if (c.settingsOut != null && !c.writtenSettings.contains(setting)) {
+			if (c.writtenSettings.size() == 0) {
+				c.settingsOut.println("# Settings for run " + (c.runIndex + 1));
 			}
-			out.println(setting);
-			writtenSettings.add(setting);
+			c.settingsOut.println(setting);
+			c.writtenSettings.add(setting);
 		}
 	}
 	
@@ -313,9 +329,10 @@ public class Settings {
 	 */
 	public String getSetting(String name) {
 		String fullPropName;
-		if (props == null) {
+		if (getProperties() == null) {
 			init(null);
 		}
+		Properties props = getProperties();
 		fullPropName = getFullPropertyName(name, false);
 		String value = props.getProperty(fullPropName);
 		
@@ -353,6 +370,7 @@ public class Settings {
 		final String RUN_ARRAY_END = "]";
 		final String RUN_ARRAY_DELIM = ";";
 		final int MIN_LENGTH = 3; // minimum run is one value. e.g. "[v]"
+		int runIndex = SimContext.getCurrent().runIndex;
 		
 		if (!value.startsWith(RUN_ARRAY_START) || 
 			!value.endsWith(RUN_ARRAY_END) || 
@@ -749,7 +767,7 @@ public class Settings {
 	 * @return a String representation of the stored settings 
 	 */
 	public String toString() {
-		return props.toString();
+		return getProperties().toString();
 	}
 	
 }
\ No newline at end of file
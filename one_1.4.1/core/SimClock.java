@@ -6,28 +6,21 @@ package core;
 
 
 /**
- * Wall clock for checking the simulation time.
+ * Wall clock for checking the simulation time. Every simulation has its own
+ * clock (see {@link SimContext}); the static methods use the clock of the
+ * current context.
  */
 public class SimClock {
-	private static double clockTime = 0.0;
-	private static SimClock clock = null;
+	private double clockTime = 0.0;
 	
-	private SimClock() {}
-	
-	static {
-		DTNSim.registerForReset(SimClock.class.getCanonicalName());
-		reset();
-	}
+	SimClock() {}
 	
 	/**
 	 * Get the instance of the class that can also change the time.
 	 * @return The instance of this clock
 	 */
 	public static SimClock getInstance() {
-		if (clock == null) {
-			clock = new SimClock();
-		}
-		return clock;
+		return SimContext.getCurrent().getClock();
 	}
 	
 	/**
@@ -35,7 +28,7 @@ public class SimClock {
 	 * @return Time as a double
 	 */
 	public static double getTime() {
-		return clockTime;
+		return SimContext.getCurrent().getClock().clockTime;
 	}
 	
 	/**
@@ -43,7 +36,15 @@ public class SimClock {
 	 * @return Time as integer
 	 */
 	public static int getIntTime() {
-		return (int)Math.round(clockTime);
+		return (int)Math.round(getTime());
+	}
+	
+	/**
+	 * Returns the time of this clock (seconds since start)
+	 * @return Time as a double
+	 */
+	public double getClockTime() {
+		return clockTime;
 	}
 	
 	/**
@@ -71,9 +72,9 @@ public class SimClock {
 	}
 	
 	/**
-	 * Resets the static fields of the class
+	 * Resets the time of the current clock
 	 */
 	public static void reset() {
-		clockTime = 0;
+		getInstance().setTime(0);
 	}
 }
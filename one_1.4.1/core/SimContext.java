@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package core;
+
+import interfaces.ConnectivityGrid;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * State of one simulation: the clock, the scenario, the settings, the
+ * address and message ID counters, the connectivity grids and the random
+ * number streams. The static accessors of the classes (e.g.,
+ * {@link SimClock#getTime()} and {@link SimScenario#getInstance()}) use
+ * the current context of the calling thread, which is the default
+ * context unless another one is set with {@link #setCurrent(SimContext)}.
+ * Hence, simulations can run concurrently in the same JVM if every
+ * simulation runs in its own thread with its own context. Modules outside
+ * of the core keep their per-simulation state in the context with
+ * {@link #setModuleState(String, Object)} (e.g., the buffer store of the
+ * resource management application). Classes that
+ * still keep state in static fields and are reset with
+ * {@link DTNSim#registerForReset(String)} (e.g., the bus control systems
+ * and {@link movement.ExternalMovement}) are not separated though.
+ */
+public class SimContext {
+	/** context of the threads that haven't set a context */
+	private static final SimContext defaultContext = new SimContext();
+	/** current context of every thread */
+	private static final ThreadLocal<SimContext> current =
+		new ThreadLocal<SimContext>() {
+			protected SimContext initialValue() {
+				return defaultContext;
+			}
+		};
+
+	/** clock of the simulation */
+	private SimClock clock;
+	/** scenario of the simulation or null if not created yet */
+	SimScenario scenario;
+
+	/** properties where the setting files are read into */
+	Properties props;
+	/** run index for run-specific settings */
+	int runIndex;
+	/** stream where all read settings are written to (or null) */
+	PrintStream settingsOut;
+	/** settings written to the settings output (for the current run) */
+	Set<String> writtenSettings;
+
+	/** next host address */
+	int nextHostAddress;
+	/** next network interface address */
+	int nextInterfaceAddress;
+	/** next unique message ID */
+	int nextMessageId;
+
+	/** seed of the random number streams, read on the first use */
+	Long rngSeed;
+	/** number of streams given by {@link SimRandom#nextRandom(String)} */
+	HashMap<String, Integer> nrofStreams;
+
+	/** connectivity grids by their keys */
+	private HashMap<Integer, ConnectivityGrid> grids;
+	/** state of other modules by their keys */
+	private HashMap<String, Object> moduleStates;
+
+	/**
+	 * Creates a new context without settings
+	 */
+	public SimContext() {
+		this.clock = new SimClock();
+		this.writtenSettings = new HashSet<String>();
+		this.nrofStreams = new HashMap<String, Integer>();
+		this.grids = new HashMap<Integer, ConnectivityGrid>();
+		this.moduleStates = new HashMap<String, Object>();
+	}
+
+	/**
+	 * Returns the current context of the calling thread
+	 * @return The current context
+	 */
+	public static SimContext getCurrent() {
+		return current.get();
+	}
+
+	/**
+	 * Sets the current context of the calling thread
+	 * @param context The context to use for subsequent calls in this
+	 * thread, or null for the default context
+	 */
+	public static void setCurrent(SimContext context) {
+		if (context == null) {
+			current.remove();
+		}
+		else {
+			current.set(context);
+		}
+	}
+
+	/**
+	 * Creates a context for a new run that uses the same settings as this
+	 * context. All other state of the new context is in the initial state.
+	 * @param runIndex Run index of the new run
+	 * (see {@link Settings#setRunIndex(int)})
+	 * @return The new context
+	 */
+	public SimContext newRun(int runIndex) {
+		SimContext c = new SimContext();
+		c.props = this.props;
+		c.settingsOut = this.settingsOut;
+		c.runIndex = runIndex;
+		return c;
+	}
+
+	/**
+	 * Returns the clock of the simulation
+	 * @return The clock
+	 */
+	public SimClock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Returns the scenario of the simulation and creates it from the
+	 * settings if it doesn't exist yet
+	 * @return The scenario
+	 */
+	public SimScenario getScenario() {
+		if (this.scenario == null) {
+			this.scenario = new SimScenario();
+		}
+		return this.scenario;
+	}
+
+	/**
+	 * Returns the connectivity grids of the simulation by their keys
+	 * @return The connectivity grids
+	 */
+	public HashMap<Integer, ConnectivityGrid> getConnectivityGrids() {
+		return this.grids;
+	}
+
+	/**
+	 * Returns the state a module has stored in this context
+	 * @param key Key of the state, e.g., the name of the module's class
+	 * @return The state or null if the module hasn't stored any
+	 */
+	public Object getModuleState(String key) {
+		return this.moduleStates.get(key);
+	}
+
+	/**
+	 * Stores the state of a module in this context. The state is not
+	 * shared with the contexts of other runs.
+	 * @param key Key of the state, e.g., the name of the module's class
+	 * @param state The state or null to remove it
+	 */
+	public void setModuleState(String key, Object state) {
+		if (state == null) {
+			this.moduleStates.remove(key);
+		}
+		else {
+			this.moduleStates.put(key, state);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package core;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import movement.MovementModel;
+
+/**
+ * Random number streams of the simulation. Every module (e.g., the movement
+ * models or the network interfaces) asks for its own streams, usually one
+ * per host, instead of sharing a generator. All streams are derived from the
+ * {@link MovementModel#RNG_SEED} setting, the name of the module and the
+ * index of the stream the same way SplittableRandom splits its seeds, so
+ * the numbers of a stream do not depend on which other streams are used or
+ * in which order, and streams can be used by different threads without
+ * synchronization. The seed and the stream counters are kept in the
+ * current {@link SimContext}.
+ */
+public class SimRandom {
+	/** golden ratio increment of the SplitMix64 generator */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private SimRandom() {}
+
+	/**
+	 * Resets the seed and the stream counters of the current context. The
+	 * seed is read again from the settings when it is needed next time.
+	 */
+	public static void reset() {
+		SimContext c = SimContext.getCurrent();
+		c.rngSeed = null;
+		c.nrofStreams.clear();
+	}
+
+	/**
+	 * Returns the seed all streams of the current context are derived from
+	 * @return The seed
+	 */
+	private static long getSeed() {
+		SimContext c = SimContext.getCurrent();
+		if (c.rngSeed == null) {
+			Settings s = new Settings(MovementModel.MOVEMENT_MODEL_NS);
+			if (s.contains(MovementModel.RNG_SEED)) {
+				c.rngSeed = (long)s.getInt(MovementModel.RNG_SEED);
+			}
+			else {
+				c.rngSeed = 0L;
+			}
+		}
+		return c.rngSeed;
+	}
+
+	/**
+	 * Returns the seed of a stream
+	 * @param module Name of the module the stream is for
+	 * @param index Index of the stream within the module, e.g., the address
+	 * of the host
+	 * @return The seed of the stream
+	 */
+	public static long getSeed(String module, long index) {
+		long moduleSeed = mix(getSeed() + GOLDEN_GAMMA * (module.hashCode() + 1L));
+		return mix(moduleSeed + GOLDEN_GAMMA * (index + 1));
+	}
+
+	/**
+	 * Returns a new random number generator for a stream
+	 * @param module Name of the module the stream is for
+	 * @param index Index of the stream within the module
+	 * @return A new generator seeded for the stream
+	 */
+	public static Random getRandom(String module, long index) {
+		return new Random(getSeed(module, index));
+	}
+
+	/**
+	 * Returns a new random number generator for the next stream of a module.
+	 * Streams are numbered in the order they are asked for, so modules that
+	 * are created in the same order in every run (like the modules of hosts)
+	 * get the same streams.
+	 * @param module Name of the module the stream is for
+	 * @return A new generator seeded for the next stream of the module
+	 */
+	public static Random nextRandom(String module) {
+		HashMap<String, Integer> nrofStreams = 
+			SimContext.getCurrent().nrofStreams;
+		Integer index = nrofStreams.get(module);
+		if (index == null) {
+			index = 0;
+		}
+		nrofStreams.put(module, index + 1);
+		return getRandom(module, index);
+	}
+
+	/**
+	 * Sets the seed of an existing generator to the seed of a stream. Can be
+	 * used instead of {@link #getRandom(String, long)} to avoid creating new
+	 * generators.
+	 * @param rng The generator to reseed
+	 * @param module Name of the module the stream is for
+	 * @param index Index of the stream within the module
+	 */
+	public static void reseed(Random rng, String module, long index) {
+		rng.setSeed(getSeed(module, index));
+	}
+
+	/**
+	 * Mixes the bits of a value (the SplitMix64 finalizer)
+	 * @param z The value to mix
+	 * @return The mixed value
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
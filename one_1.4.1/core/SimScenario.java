@@ -22,9 +22,6 @@ import routing.MessageRouter;
  */
 public class SimScenario implements Serializable {
 	
-	/** a way to get a hold of this... */	
-	private static SimScenario myinstance=null;
-
 	/** namespace of scenario settings ({@value})*/
 	public static final String SCENARIO_NS = "Scenario";
 	/** number of host groups -setting id ({@value})*/
@@ -39,6 +36,20 @@ public class SimScenario implements Serializable {
 	public static final String UP_INT_S = "updateInterval";
 	/** simulate connections -setting id ({@value})*/
 	public static final String SIM_CON_S = "simulateConnections";
+	/** simulation engine -setting id ({@value}). One of 
+	 * {@link #TIME_STEP_ENGINE} (default), {@link #DISCRETE_EVENT_ENGINE} 
+	 * or {@link #ADAPTIVE_ENGINE}
+	 * @see DiscreteEventEngine */
+	public static final String ENGINE_S = "engine";
+	/** value of the engine setting for updating the world at every update 
+	 * interval ({@value}) */
+	public static final String TIME_STEP_ENGINE = "timeStep";
+	/** value of the engine setting for skipping the update intervals 
+	 * without events ({@value}) */
+	public static final String DISCRETE_EVENT_ENGINE = "discreteEvent";
+	/** value of the engine setting for passing the update intervals 
+	 * without events in large steps ({@value}) */
+	public static final String ADAPTIVE_ENGINE = "adaptive";
 
 	/** namespace for interface type settings ({@value}) */
 	public static final String INTTYPE_NS = "Interface";
@@ -120,13 +131,12 @@ public class SimScenario implements Serializable {
 	/** Global application event listeners */
 	private List<ApplicationListener> appListeners;
 
-	static {
-		DTNSim.registerForReset(SimScenario.class.getCanonicalName());
-		reset();
-	}
-	
+	/**
+	 * Removes the scenario of the current context so that the next 
+	 * {@link #getInstance()} call creates a new one
+	 */
 	public static void reset() {
-		myinstance = null;
+		SimContext.getCurrent().scenario = null;
 	}
 
 	/**
@@ -169,13 +179,12 @@ public class SimScenario implements Serializable {
 	}
 	
 	/**
-	 * Returns the SimScenario instance and creates one if it doesn't exist yet
+	 * Returns the SimScenario instance of the current context and creates 
+	 * one if it doesn't exist yet
+	 * @see SimContext#getScenario()
 	 */
 	public static SimScenario getInstance() {
-		if (myinstance == null) {
-			myinstance = new SimScenario();
-		}
-		return myinstance;
+		return SimContext.getCurrent().getScenario();
 	}
 
 	/**
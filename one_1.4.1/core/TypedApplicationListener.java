@@ -0,0 +1,35 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package core;
+
+/**
+ * <p>
+ * Application listener that is informed about the numeric type of
+ * application events instead of their name.
+ * </p>
+ * 
+ * <p>
+ * Applications sending events with
+ * {@link Application#sendEventToListeners(int, String, Object, DTNHost)}
+ * call {@link #gotEvent(int, Object, Application, DTNHost)} on these
+ * listeners, so they can dispatch on the type without comparing strings.
+ * Events sent only by name are still delivered to
+ * {@link ApplicationListener#gotEvent(String, Object, Application, DTNHost)}.
+ * As with event names, the event types are defined by the applications.
+ * </p>
+ */
+public interface TypedApplicationListener extends ApplicationListener {
+	
+	/** 
+	 * Application has generated a typed event.
+	 * 
+	 * @param eventType	Application specific numeric type of the event.
+	 * @param params	Additional parameters for the event
+	 * @param app		Application instance that generated the event.
+	 * @param host		The host this application instance is running on.
+	 */
+	public void gotEvent(int eventType, Object params, Application app,
+			DTNHost host);
+}
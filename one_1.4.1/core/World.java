@@ -4,15 +4,18 @@
  */
 package core;
 
+import input.AsyncEventQueue;
 import input.EventQueue;
 import input.ExternalEvent;
 import input.ScheduledUpdatesQueue;
 import interfaces.ConnectivityGrid;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * World contains all the nodes and is responsible for updating their
@@ -37,30 +40,122 @@ public class World {
 	 * Default is @link {@link #DEF_RANDOMIZE_UPDATES}.
 	 */
 	public static final String RANDOMIZE_UPDATES_S = "randomizeUpdateOrder";
+	/**
+	 * Should the update order be randomized only once per update interval
+	 * -setting id ({@value}). Boolean (true/false) variable. If true, the 
+	 * hosts are updated in the same order after all events of an interval
+	 * and at the end of the interval. Default is false, i.e., the order is 
+	 * randomized for every update of the hosts. Has no effect if 
+	 * {@link #RANDOMIZE_UPDATES_S} is false.
+	 */
+	public static final String RANDOMIZE_ONCE_S = "randomizeOncePerInterval";
+	/**
+	 * Number of threads for the parallel host update mode -setting id 
+	 * ({@value}). Integer value, 1 (default) updates hosts sequentially.
+	 * With more threads, the network interfaces of all hosts look up their
+	 * connection candidates in parallel first. Then the hosts are updated
+	 * in the usual (randomized) order, which makes the connections and 
+	 * calls the routers. The results do not depend on the number of 
+	 * threads, but differ from the sequential mode since all interfaces are
+	 * moved in the connectivity grid before any candidates are looked up.
+	 * Hosts that can move in parallel (see 
+	 * {@link DTNHost#canMoveInParallel()}) are also moved by the threads.
+	 */
+	public static final String UPDATE_THREADS_S = "updateThreads";
+	/**
+	 * Should the external events be processed in batches -setting id 
+	 * ({@value}). Boolean (true/false) variable. If true, all events that
+	 * are due at the same time (or within {@link #EVENT_BATCH_WINDOW_S} 
+	 * seconds from the first one) are processed before the hosts are 
+	 * updated, and only the hosts touched by the events of the batch (see
+	 * {@link ExternalEvent#markTouchedHosts(World)}) are updated. If any
+	 * event of the batch may touch all hosts, all hosts are updated. All 
+	 * hosts are always updated at the end of every update interval. 
+	 * Default is false, i.e., all hosts are updated after every event.
+	 */
+	public static final String BATCH_EVENTS_S = "batchEvents";
+	/**
+	 * Length of the event batching window -setting id ({@value}). Double 
+	 * value in seconds, default is 0, i.e., only events that are due at
+	 * exactly the same time are batched. Has no effect if 
+	 * {@link #BATCH_EVENTS_S} is false.
+	 */
+	public static final String EVENT_BATCH_WINDOW_S = "eventBatchWindow";
 	/** default value for cell size multiplier ({@value}) */
 	public static final int DEF_CON_CELL_SIZE_MULT = 5;
 	/** should the update order of nodes be randomized -setting's default value
 	 * ({@value}) */
 	public static final boolean DEF_RANDOMIZE_UPDATES = true;
+	/** default value for the number of update threads ({@value}) */
+	public static final int DEF_UPDATE_THREADS = 1;
+	/** {@link SimRandom} module name of the update order stream */
+	private static final String RNG_MODULE = "World.updateOrder";
+	/** maximum number of hosts one update task handles without splitting */
+	private static final int MAX_HOSTS_PER_TASK = 32;
 
 	private int sizeX;
 	private int sizeY;
 	private List<EventQueue> eventQueues;
 	private double updateInterval;
+	/** context of the simulation this world belongs to */
+	private SimContext context;
 	private SimClock simClock;
 	private double nextQueueEventTime;
 	private EventQueue nextEventQueue;
+	/** event queues ordered by their next event's time. ID 0 is the 
+	 * scheduled updates queue and ID i+1 the event queue i. */
+	private IndexedEventQueue queueOrder;
+	/** IDs of the event queues that are not kept in the queue order */
+	private int[] asyncQueueIds;
+	/** ID of the queue that has the next event or -1 if not known yet */
+	private int nextQueueId;
 	/** list of nodes; nodes are indexed by their network address */
 	private List<DTNHost> hosts;
 	private boolean simulateConnections;
-	/** nodes in the order they should be updated (if the order should be 
-	 * randomized; null value means that the order should not be randomized) */
-	private ArrayList<DTNHost> updateOrder;
+	/** indices of the nodes in the order they should be updated (if the 
+	 * order should be randomized; null value means that the order should 
+	 * not be randomized) */
+	private int[] updateOrder;
+	/** should the order be randomized only once per update interval */
+	private boolean randomizeOnce;
+	/** has the order been randomized in the current update interval */
+	private boolean orderRandomized;
 	/** is cancellation of simulation requested from UI */
 	private boolean isCancelled;
 	private List<UpdateListener> updateListeners;
+	/** rng for randomizing the update order, reseeded for every update */
+	private Random updateOrderRng;
 	/** Queue of scheduled update requests */
 	private ScheduledUpdatesQueue scheduledUpdates;
+	/** engine for skipping idle update intervals or null if every 
+	 * interval is updated */
+	private DiscreteEventEngine eventEngine;
+	/** end time of the simulation */
+	private double endTime;
+	/** are the skipped intervals passed in large steps 
+	 * (see {@link SimScenario#ADAPTIVE_ENGINE}) */
+	private boolean adaptiveSteps;
+	/** intervals of the next movement events of the hosts, relative to 
+	 * the start of the large step */
+	private IndexedEventQueue movementEvents;
+	/** time until which each host has been moved during a large step */
+	private double[] movedUntil;
+	/** pool for the parallel update mode or null if the mode is off */
+	private ForkJoinPool updatePool;
+	/** active hosts whose connection candidates are looked up */
+	private DTNHost[] activeHosts;
+	/** hosts that are moved in parallel */
+	private DTNHost[] parallelHosts;
+	/** should the events be processed in batches */
+	private boolean batchEvents;
+	/** length of the event batching window */
+	private double eventBatchWindow;
+	/** touched flags of the hosts by address (in event batching mode) */
+	private boolean[] touched;
+	/** addresses of the touched hosts in the order they were touched */
+	private int[] touchedHosts;
+	/** number of touched hosts in the current batch */
+	private int nrofTouched;
 
 	/** single ConnectivityCell's size is biggest radio range times this */
 	private int conCellSizeMult;
@@ -79,10 +174,12 @@ public class World {
 		this.simulateConnections = simulateConnections;
 		this.eventQueues = eventQueues;
 		
-		this.simClock = SimClock.getInstance();
+		this.context = SimContext.getCurrent();
+		this.simClock = context.getClock();
 		this.scheduledUpdates = new ScheduledUpdatesQueue();
 		this.isCancelled = false;		
 
+		initQueueOrder();
 		setNextEventQueue();
 		initSettings();
 	}
@@ -99,11 +196,85 @@ public class World {
 		}
 		if(randomizeUpdates) {
 			// creates the update order array that can be shuffled
-			this.updateOrder = new ArrayList<DTNHost>(this.hosts);
+			this.updateOrder = new int[this.hosts.size()];
+			for (int i=0; i < this.updateOrder.length; i++) {
+				this.updateOrder[i] = i;
+			}
+			this.updateOrderRng = new Random();
 		}
 		else { // null pointer means "don't randomize"
 			this.updateOrder = null;
 		}
+
+		this.randomizeOnce = false;
+		if (s.contains(RANDOMIZE_ONCE_S)) {
+			this.randomizeOnce = s.getBoolean(RANDOMIZE_ONCE_S);
+		}
+
+		int updateThreads = DEF_UPDATE_THREADS;
+		if (s.contains(UPDATE_THREADS_S)) {
+			updateThreads = s.getInt(UPDATE_THREADS_S);
+		}
+		if (updateThreads < 1) {
+			throw new SettingsError("Too small value (" + updateThreads +
+					") for " + SETTINGS_NS + "." + UPDATE_THREADS_S);
+		}
+		if (updateThreads > 1) {
+			this.updatePool = new ForkJoinPool(updateThreads, 
+					new UpdateThreadFactory(this.context), null, false);
+			this.activeHosts = new DTNHost[this.hosts.size()];
+			this.parallelHosts = new DTNHost[this.hosts.size()];
+		}
+		else { // null pointer means "update sequentially"
+			this.updatePool = null;
+		}
+
+		this.batchEvents = false;
+		if (s.contains(BATCH_EVENTS_S)) {
+			this.batchEvents = s.getBoolean(BATCH_EVENTS_S);
+		}
+		this.eventBatchWindow = 0;
+		if (s.contains(EVENT_BATCH_WINDOW_S)) {
+			this.eventBatchWindow = s.getDouble(EVENT_BATCH_WINDOW_S);
+		}
+		if (this.eventBatchWindow < 0) {
+			throw new SettingsError("Negative value (" + 
+					this.eventBatchWindow + ") for " + SETTINGS_NS + "." + 
+					EVENT_BATCH_WINDOW_S);
+		}
+		if (this.batchEvents) {
+			this.touched = new boolean[this.hosts.size()];
+			this.touchedHosts = new int[this.hosts.size()];
+			this.nrofTouched = 0;
+		}
+
+		Settings scenario = new Settings(SimScenario.SCENARIO_NS);
+		String engine = SimScenario.TIME_STEP_ENGINE;
+		if (scenario.contains(SimScenario.ENGINE_S)) {
+			engine = scenario.getSetting(SimScenario.ENGINE_S);
+		}
+		if (engine.equals(SimScenario.DISCRETE_EVENT_ENGINE) || 
+				engine.equals(SimScenario.ADAPTIVE_ENGINE)) {
+			this.eventEngine = new DiscreteEventEngine(this.hosts, 
+					this.updateInterval);
+			this.endTime = Double.MAX_VALUE;
+			if (scenario.contains(SimScenario.END_TIME_S)) {
+				this.endTime = scenario.getDouble(SimScenario.END_TIME_S);
+			}
+			this.adaptiveSteps = engine.equals(SimScenario.ADAPTIVE_ENGINE);
+			if (this.adaptiveSteps) {
+				this.movementEvents = new IndexedEventQueue(1, 
+						Math.max(hosts.size(), 1));
+				this.movedUntil = new double[hosts.size()];
+			}
+		}
+		else if (engine.equals(SimScenario.TIME_STEP_ENGINE)) {
+			this.eventEngine = null;
+		}
+		else {
+			throw new SettingsError("Unknown engine '" + engine + "' for " + 
+					SimScenario.SCENARIO_NS + "." + SimScenario.ENGINE_S);
+		}
 
 		if (s.contains(CELL_SIZE_MULT_S)) {
 			conCellSizeMult = s.getInt(CELL_SIZE_MULT_S);
@@ -142,22 +313,70 @@ public class World {
 	}
 
 	/**
-	 * Goes through all event Queues and sets the 
-	 * event queue that has the next event.
+	 * Puts the event queues in the queue order, except the 
+	 * {@link AsyncEventQueue}s whose times are checked every time
+	 */
+	private void initQueueOrder() {
+		int nrofQueues = this.eventQueues.size() + 1;
+		int nrofAsync = 0;
+		this.queueOrder = new IndexedEventQueue(1, nrofQueues);
+		this.asyncQueueIds = new int[nrofQueues];
+		for (int id=0; id < nrofQueues; id++) {
+			if (getEventQueue(id) instanceof AsyncEventQueue) {
+				this.asyncQueueIds[nrofAsync++] = id;
+			}
+			else {
+				updateQueueOrder(id);
+			}
+		}
+		this.asyncQueueIds = Arrays.copyOf(this.asyncQueueIds, nrofAsync);
+		this.nextQueueId = -1;
+	}
+
+	/**
+	 * Returns the event queue with the given ID in the queue order
+	 * @param id ID of the queue
+	 * @return The scheduled updates queue for ID 0, otherwise the event
+	 * queue ID-1
+	 */
+	private EventQueue getEventQueue(int id) {
+		return id == 0 ? this.scheduledUpdates : this.eventQueues.get(id - 1);
+	}
+
+	/**
+	 * Moves an event queue to the right place in the queue order after
+	 * its next event's time has changed
+	 * @param id ID of the queue
+	 */
+	private void updateQueueOrder(int id) {
+		this.queueOrder.schedule(0, id, getEventQueue(id).nextEventsTime());
+	}
+
+	/**
+	 * Sets the event queue that has the next event. Only the queue that 
+	 * had the next event last time and the {@link AsyncEventQueue}s can 
+	 * have new times, so only they are checked. Of the queues with the 
+	 * same time, the scheduled updates queue is first and the event queues
+	 * follow in their order.
 	 */
 	public void setNextEventQueue() {
-		EventQueue nextQueue = scheduledUpdates;
-		double earliest = nextQueue.nextEventsTime();
-
-		/* find the queue that has the next event */
-		for (EventQueue eq : eventQueues) {
-			if (eq.nextEventsTime() < earliest){
-				nextQueue = eq;	
-				earliest = eq.nextEventsTime();
+		if (this.nextQueueId >= 0 && 
+				!(this.nextEventQueue instanceof AsyncEventQueue)) {
+			updateQueueOrder(this.nextQueueId);
+		}
+		int nextId = this.queueOrder.nextEventsId();
+		double earliest = this.queueOrder.nextEventsTime();
+
+		for (int id : this.asyncQueueIds) {
+			double time = getEventQueue(id).nextEventsTime();
+			if (time < earliest || (time == earliest && id < nextId)) {
+				nextId = id;
+				earliest = time;
 			}
 		}
 
-		this.nextEventQueue = nextQueue;
+		this.nextQueueId = nextId;
+		this.nextEventQueue = getEventQueue(nextId);
 		this.nextQueueEventTime = earliest;
 	}
 
@@ -167,18 +386,28 @@ public class World {
 	 * this method is called and after one update interval.
 	 */
 	public void update () {
+		if (this.eventEngine != null) {
+			skipIdleIntervals();
+		}
+
 		double runUntil = SimClock.getTime() + this.updateInterval;
-
-		setNextEventQueue();
+
+		setNextEventQueue();
+		this.orderRandomized = false;
 
 		/* process all events that are due until next interval update */
-		while (this.nextQueueEventTime <= runUntil) {
-			simClock.setTime(this.nextQueueEventTime);
-			ExternalEvent ee = this.nextEventQueue.nextEvent();
-			ee.processEvent(this);
-			updateHosts(); // update all hosts after every event
-			setNextEventQueue();
-		}
+		if (this.batchEvents) {
+			processEventBatches(runUntil);
+		}
+		else {
+			while (this.nextQueueEventTime <= runUntil) {
+				simClock.setTime(this.nextQueueEventTime);
+				ExternalEvent ee = this.nextEventQueue.nextEvent();
+				ee.processEvent(this);
+				updateHosts(); // update all hosts after every event
+				setNextEventQueue();
+			}
+		}
 
 		moveHosts(this.updateInterval);
 		simClock.setTime(runUntil);
@@ -191,12 +420,223 @@ public class World {
 		}
 	}
 
+	/**
+	 * Moves the hosts over the update intervals that the discrete event 
+	 * engine allows to skip, i.e., the intervals before the next event in 
+	 * which updating the hosts would not change anything. The hosts are 
+	 * moved and the clock advanced one interval at a time, as in 
+	 * {@link #update()}, so the results do not depend on the engine.
+	 * With adaptive steps, the interface locations are updated only once 
+	 * after the skipped intervals. The intervals are passed in one large 
+	 * step (see {@link #moveHostsInLargeStep(int)}) if there are no update
+	 * listeners. Otherwise the hosts are moved and the listeners called at
+	 * every interval boundary, so that listeners sampling the hosts (e.g., 
+	 * reports with a granularity) see the same times and locations as with
+	 * the other engines.
+	 */
+	private void skipIdleIntervals() {
+		setNextEventQueue();
+		int nrofSkipped = this.eventEngine.getNrofSkippableIntervals(
+				this.nextQueueEventTime, this.endTime);
+		if (this.adaptiveSteps && nrofSkipped > 0) {
+			if (this.updateListeners.isEmpty()) {
+				moveHostsInLargeStep(nrofSkipped);
+			}
+			else {
+				for (int i=0; i < nrofSkipped; i++) {
+					moveHosts(this.updateInterval);
+					simClock.setTime(SimClock.getTime() + this.updateInterval);
+					for (UpdateListener ul : this.updateListeners) {
+						ul.updated(this.hosts);
+					}
+				}
+			}
+			if (simulateConnections) {
+				updateInterfaceLocations();
+			}
+			return;
+		}
+
+		for (int i=0; i < nrofSkipped; i++) {
+			moveHosts(this.updateInterval);
+			simClock.setTime(SimClock.getTime() + this.updateInterval);
+			if (simulateConnections) {
+				updateInterfaceLocations();
+			}
+
+			for (UpdateListener ul : this.updateListeners) {
+				ul.updated(this.hosts);
+			}
+		}
+	}
+
+	/**
+	 * Moves the hosts over the given number of update intervals and 
+	 * advances the clock to the end of them. Every host is moved as far as
+	 * it can in one step without reaching a waypoint, stopping to wait or 
+	 * starting to move, i.e., until the interval before its next movement
+	 * event. Those intervals are moved one at a time with the clock set to
+	 * their start, as in {@link #update()}, so the hosts get their new 
+	 * paths and wait times at the same times as in every-interval updates.
+	 * The times can differ by one interval only if rounding errors move a
+	 * movement event over an interval boundary.
+	 * @param nrofIntervals Number of intervals to move the hosts over
+	 */
+	private void moveHostsInLargeStep(int nrofIntervals) {
+		double start = SimClock.getTime();
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			this.movedUntil[i] = start;
+			scheduleMovementEvent(i, start, 0);
+		}
+
+		while (this.movementEvents.nextEventsTime() < nrofIntervals) {
+			int interval = (int)this.movementEvents.nextEventsTime();
+			int i = this.movementEvents.nextEventsId();
+			DTNHost host = hosts.get(i);
+			double time = start + interval * this.updateInterval;
+
+			/* move to the start of the interval and over the interval */
+			simClock.setTime(time);
+			if (time > this.movedUntil[i]) {
+				host.move(time - this.movedUntil[i]);
+			}
+			host.move(this.updateInterval);
+			this.movedUntil[i] = time + this.updateInterval;
+
+			simClock.setTime(this.movedUntil[i]);
+			scheduleMovementEvent(i, start, interval + 1);
+		}
+		this.movementEvents.clear();
+
+		double end = start + nrofIntervals * this.updateInterval;
+		simClock.setTime(end);
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			if (end > this.movedUntil[i]) {
+				hosts.get(i).move(end - this.movedUntil[i]);
+			}
+		}
+	}
+
+	/**
+	 * Schedules the interval of the next movement event of a host during
+	 * a large step. One interval earlier is used, so rounding errors in the
+	 * time of the event do not move the event past its interval.
+	 * @param address Address of the host
+	 * @param start Start time of the large step
+	 * @param first The first interval the event can be in
+	 */
+	private void scheduleMovementEvent(int address, double start, 
+			int first) {
+		double time = hosts.get(address).getNextMovementEventTime();
+		double interval = Math.floor((time - start) / this.updateInterval);
+		this.movementEvents.schedule(0, address, Math.max(interval - 1, 
+				first));
+	}
+
+	/**
+	 * Does for the interfaces of the active hosts what their update does 
+	 * when no connections change: updates their locations in the 
+	 * connectivity optimizer in the update order and checks if they are 
+	 * scanning, which starts their next scan rounds.
+	 */
+	private void updateInterfaceLocations() {
+		if (this.updateOrder != null) {
+			shuffleUpdateOrder();
+		}
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			DTNHost host = hosts.get(this.updateOrder == null ? i : 
+				this.updateOrder[i]);
+			if (!host.isActive()) {
+				continue;
+			}
+			for (NetworkInterface ni : host.getInterfaces()) {
+				ni.updateLocation();
+				ni.isScanning();
+			}
+		}
+	}
+
+	/**
+	 * Processes the events that are due until the given time in batches 
+	 * (see {@link #BATCH_EVENTS_S}) and updates the hosts touched by every
+	 * batch.
+	 * @param runUntil Time until which the events are processed
+	 */
+	private void processEventBatches(double runUntil) {
+		while (this.nextQueueEventTime <= runUntil) {
+			double batchEnd = Math.min(this.nextQueueEventTime + 
+					this.eventBatchWindow, runUntil);
+			boolean updateAll = false;
+
+			while (this.nextQueueEventTime <= batchEnd) {
+				simClock.setTime(this.nextQueueEventTime);
+				ExternalEvent ee = this.nextEventQueue.nextEvent();
+				ee.processEvent(this);
+				if (!updateAll && !ee.markTouchedHosts(this)) {
+					updateAll = true;
+				}
+				setNextEventQueue();
+			}
+
+			if (updateAll) {
+				clearTouchedHosts();
+				updateHosts();
+			}
+			else {
+				updateTouchedHosts();
+			}
+		}
+	}
+
+	/**
+	 * Marks a host touched by an event of the current event batch. Touched
+	 * hosts are updated after the batch has been processed. 
+	 * Does nothing if event batching is off.
+	 * @param address Address of the host
+	 * @see ExternalEvent#markTouchedHosts(World)
+	 */
+	public void markHostTouched(int address) {
+		if (this.touched == null || this.touched[address]) {
+			return;
+		}
+		this.touched[address] = true;
+		this.touchedHosts[this.nrofTouched++] = address;
+	}
+
+	/**
+	 * Updates the touched hosts in the order they were touched and clears 
+	 * the touched marks
+	 */
+	private void updateTouchedHosts() {
+		for (int i=0; i < this.nrofTouched; i++) {
+			if (this.isCancelled) {
+				break;
+			}
+			hosts.get(this.touchedHosts[i]).update(simulateConnections);
+		}
+		clearTouchedHosts();
+	}
+
+	/**
+	 * Clears the touched marks of all hosts
+	 */
+	private void clearTouchedHosts() {
+		for (int i=0; i < this.nrofTouched; i++) {
+			this.touched[this.touchedHosts[i]] = false;
+		}
+		this.nrofTouched = 0;
+	}
+
 	/**
 	 * Updates all hosts (calls update for every one of them). If update
 	 * order randomizing is on (updateOrder array is defined), the calls
 	 * are made in random order.
 	 */
 	private void updateHosts() {
+		if (this.updatePool != null && simulateConnections) {
+			findConnectionCandidates();
+		}
+		
 		if (this.updateOrder == null) { // randomizing is off
 			for (int i=0, n = hosts.size();i < n; i++) {
 				if (this.isCancelled) {
@@ -206,30 +646,104 @@ public class World {
 			}
 		}
 		else { // update order randomizing is on
-			assert this.updateOrder.size() == this.hosts.size() : 
+			assert this.updateOrder.length == this.hosts.size() : 
 				"Nrof hosts has changed unexpectedly";
-			Random rng = new Random(SimClock.getIntTime());
-			Collections.shuffle(this.updateOrder, rng); 
+			if (!this.randomizeOnce || !this.orderRandomized) {
+				shuffleUpdateOrder();
+				this.orderRandomized = true;
+			}
 			for (int i=0, n = hosts.size();i < n; i++) {
 				if (this.isCancelled) {
 					break;
 				}
-				this.updateOrder.get(i).update(simulateConnections);
+				hosts.get(this.updateOrder[i]).update(simulateConnections);
 			}			
 		}
 	}
+
+	/**
+	 * Shuffles the update order in place. Makes the same swaps as 
+	 * Collections.shuffle(List, Random) does, with the update order rng
+	 * reseeded for the current time, but without creating any objects.
+	 */
+	private void shuffleUpdateOrder() {
+		int[] order = this.updateOrder;
+		SimRandom.reseed(this.updateOrderRng, RNG_MODULE, 
+				SimClock.getIntTime());
+		for (int i = order.length; i > 1; i--) {
+			int j = this.updateOrderRng.nextInt(i);
+			int tmp = order[i - 1];
+			order[i - 1] = order[j];
+			order[j] = tmp;
+		}
+	}
+
+	/**
+	 * Looks up the connection candidates of the interfaces of all active 
+	 * hosts in parallel (see {@link #UPDATE_THREADS_S}). Activeness and
+	 * the locations in the connectivity grid are updated sequentially 
+	 * before, since they are shared between hosts.
+	 */
+	private void findConnectionCandidates() {
+		int nrofActive = 0;
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			DTNHost host = hosts.get(i);
+			if (!host.isActive()) {
+				continue;
+			}
+			for (NetworkInterface ni : host.getInterfaces()) {
+				ni.updateLocation();
+			}
+			this.activeHosts[nrofActive++] = host;
+		}
+		
+		this.updatePool.invoke(new CandidateSearch(this.activeHosts, 0, 
+				nrofActive));
+	}
 
 	/**
 	 * Moves all hosts in the world for a given amount of time
 	 * @param timeIncrement The time how long all nodes should move
 	 */
 	private void moveHosts(double timeIncrement) {
+		if (this.updatePool != null) {
+			moveHostsInParallel(timeIncrement);
+			return;
+		}
+		
 		for (int i=0,n = hosts.size(); i<n; i++) {
 			DTNHost host = hosts.get(i);
 			host.move(timeIncrement);			
 		}		
 	}
 
+	/**
+	 * Moves the hosts that can move in parallel using the update threads
+	 * and then the other hosts sequentially in the usual order. Since every
+	 * host draws from its own random number stream, the results are the 
+	 * same as when moving all hosts sequentially.
+	 * @param timeIncrement The time how long all nodes should move
+	 */
+	private void moveHostsInParallel(double timeIncrement) {
+		int nrofParallel = 0;
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			DTNHost host = hosts.get(i);
+			if (host.canMoveInParallel()) {
+				this.parallelHosts[nrofParallel++] = host;
+			}
+		}
+		
+		this.updatePool.invoke(new HostMovement(this.parallelHosts, 0, 
+				nrofParallel, timeIncrement));
+
+		for (int i=0, n = hosts.size(); i < n; i++) {
+			DTNHost host = hosts.get(i);
+			if (!host.canMoveInParallel()) {
+				host.move(timeIncrement);
+			}
+		}
+	}
+
 	/**
 	 * Asynchronously cancels the currently running simulation
 	 */
@@ -237,6 +751,28 @@ public class World {
 		this.isCancelled = true;
 	}
 
+	/**
+	 * Releases the resources of the world when the simulation has ended,
+	 * i.e., shuts down the threads of the parallel update mode, which would
+	 * otherwise keep this world alive until their idle timeout. Later 
+	 * updates run sequentially.
+	 */
+	public void close() {
+		if (this.updatePool != null) {
+			this.updatePool.shutdown();
+			this.updatePool = null;
+		}
+	}
+
+	/**
+	 * Returns the context of the simulation this world belongs to. The
+	 * world must be updated in a thread whose current context it is.
+	 * @return The context of the world
+	 */
+	public SimContext getContext() {
+		return this.context;
+	}
+
 	/**
 	 * Returns the hosts in a list
 	 * @return the hosts in a list
@@ -286,5 +822,129 @@ public class World {
 	 */
 	public void scheduleUpdate(double simTime) {
 		scheduledUpdates.addUpdate(simTime);
+		updateQueueOrder(0);
+	}
+	
+	/**
+	 * Creates the update threads with the context of the world as their
+	 * current context.
+	 */
+	private static class UpdateThreadFactory 
+			implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+		private SimContext context;
+		
+		public UpdateThreadFactory(SimContext context) {
+			this.context = context;
+		}
+		
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			return new ForkJoinWorkerThread(pool) {
+				@Override
+				protected void onStart() {
+					super.onStart();
+					SimContext.setCurrent(context);
+				}
+			};
+		}
+	}
+	
+	/**
+	 * Task that processes a range of hosts in the update threads. Ranges
+	 * that are too large for one task are split in two halves.
+	 */
+	private static abstract class HostTask extends RecursiveAction {
+		private static final long serialVersionUID = 42L;
+
+		protected DTNHost[] hosts;
+		protected int from;
+		protected int to;
+		
+		/**
+		 * Constructor.
+		 * @param hosts The hosts
+		 * @param from Index of the first host of the range
+		 * @param to Index after the last host of the range
+		 */
+		public HostTask(DTNHost[] hosts, int from, int to) {
+			this.hosts = hosts;
+			this.from = from;
+			this.to = to;
+		}
+		
+		/**
+		 * Processes one host of the range
+		 * @param host The host
+		 */
+		protected abstract void process(DTNHost host);
+		
+		/**
+		 * Creates a task for a part of the range
+		 * @param from Index of the first host of the part
+		 * @param to Index after the last host of the part
+		 * @return The new task
+		 */
+		protected abstract HostTask split(int from, int to);
+		
+		@Override
+		protected void compute() {
+			if (to - from <= MAX_HOSTS_PER_TASK) {
+				for (int i = from; i < to; i++) {
+					process(hosts[i]);
+				}
+				return;
+			}
+			
+			int middle = (from + to) >>> 1;
+			invokeAll(split(from, middle), split(middle, to));
+		}
+	}
+	
+	/**
+	 * Task that looks up the connection candidates of the interfaces of a
+	 * range of hosts.
+	 */
+	private static class CandidateSearch extends HostTask {
+		private static final long serialVersionUID = 42L;
+
+		public CandidateSearch(DTNHost[] hosts, int from, int to) {
+			super(hosts, from, to);
+		}
+		
+		@Override
+		protected void process(DTNHost host) {
+			for (NetworkInterface ni : host.getInterfaces()) {
+				ni.findConnectionCandidates();
+			}
+		}
+		
+		@Override
+		protected HostTask split(int from, int to) {
+			return new CandidateSearch(hosts, from, to);
+		}
+	}
+	
+	/**
+	 * Task that moves a range of hosts.
+	 */
+	private static class HostMovement extends HostTask {
+		private static final long serialVersionUID = 42L;
+
+		private double timeIncrement;
+		
+		public HostMovement(DTNHost[] hosts, int from, int to, 
+				double timeIncrement) {
+			super(hosts, from, to);
+			this.timeIncrement = timeIncrement;
+		}
+		
+		@Override
+		protected void process(DTNHost host) {
+			host.move(timeIncrement);
+		}
+		
+		@Override
+		protected HostTask split(int from, int to) {
+			return new HostMovement(hosts, from, to, timeIncrement);
+		}
 	}
 }
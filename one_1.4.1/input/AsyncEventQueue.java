@@ -0,0 +1,16 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package input;
+
+/**
+ * Interface for event queues whose next event's time can change without
+ * {@link #nextEvent()} being called, e.g., because other threads add 
+ * events to them. The world keeps the other event queues ordered by 
+ * their next event's time and asks only the queue that was last taken an
+ * event from for its new time, but asks these queues every time.
+ */
+public interface AsyncEventQueue extends EventQueue {
+
+}
@@ -46,6 +46,13 @@ public class ConnectionEvent extends ExternalEvent {
 		from.forceConnection(to, interfaceId, this.isUp);
 	}
 	
+	@Override
+	public boolean markTouchedHosts(World world) {
+		world.markHostTouched(this.fromAddr);
+		world.markHostTouched(this.toAddr);
+		return true;
+	}
+	
 	@Override
 	public String toString() {
 		return "CONN " + (isUp ? "up" : "down") + " @" + this.time + " " + 
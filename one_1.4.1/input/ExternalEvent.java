@@ -29,6 +29,19 @@ public class ExternalEvent implements Comparable<ExternalEvent>, Serializable {
 		// this is just a dummy event
 	}
 
+	/**
+	 * Marks the hosts whose state this event may have changed, using 
+	 * {@link World#markHostTouched(int)}. Used by the event batching mode
+	 * of the world to update only those hosts after a batch of events.
+	 * @param world World where the actors of the event are
+	 * @return True if all the affected hosts were marked, false if the 
+	 * event may affect any host and all hosts should be updated. This
+	 * implementation returns false, so dummy events update all hosts.
+	 */
+	public boolean markTouchedHosts(World world) {
+		return false;
+	}
+
 	/**
 	 * Returns the time when this event should happen.
 	 * @return Event's time
@@ -4,6 +4,8 @@
  */
 package input;
 
+import core.World;
+
 /**
  * A message related external event
  */
@@ -28,6 +30,13 @@ public abstract class MessageEvent extends ExternalEvent {
 		this.toAddr= to;
 		this.id = id;
 	}
+	
+	@Override
+	public boolean markTouchedHosts(World world) {
+		world.markHostTouched(this.fromAddr);
+		world.markHostTouched(this.toAddr);
+		return true;
+	}
 	
 	@Override
 	public String toString() {
@@ -4,25 +4,38 @@
  */
 package input;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Event queue where simulation objects can request an update to happen
  * at the specified simulation time. Multiple updates at the same time 
- * are merged to a single update.
+ * are merged to a single update. The update times are kept in a binary
+ * min-heap, so adding an update and taking the next one cost O(log n).
+ * The times in the heap are also kept in a hash set (open addressing 
+ * with linear probing over the bits of the times), so an update at a time 
+ * that is already queued is dropped in O(1) and the heap never contains 
+ * the same time twice, however many objects request it.
  */
 public class ScheduledUpdatesQueue implements EventQueue {
-	/** Time of the event (simulated seconds) */
-	private ExternalEvent nextEvent;
-	private List<ExternalEvent> updates;
+	/** initial capacity of the heap */
+	private static final int INITIAL_CAPACITY = 16;
+	/** Times of the updates in heap order */
+	private double[] times;
+	/** Number of times in the heap */
+	private int size;
+	/** Bits of the times in the heap, by their hash slots */
+	private long[] slotBits;
+	/** Which slots of the hash set are in use */
+	private boolean[] slotUsed;
 	
 	/**
 	 * Constructor. Creates an empty update queue.
 	 */
 	public ScheduledUpdatesQueue(){
-		this.nextEvent = new ExternalEvent(Double.MAX_VALUE);
-		this.updates = new ArrayList<ExternalEvent>();
+		this.times = new double[INITIAL_CAPACITY];
+		this.size = 0;
+		this.slotBits = new long[2 * INITIAL_CAPACITY];
+		this.slotUsed = new boolean[2 * INITIAL_CAPACITY];
 	}
 	
 	/**
@@ -31,16 +44,15 @@ public class ScheduledUpdatesQueue implements EventQueue {
 	 * @return the next scheduled event
 	 */
 	public ExternalEvent nextEvent() {
-		ExternalEvent event = this.nextEvent;
-		
-		if (this.updates.size() == 0) {
-			this.nextEvent = new ExternalEvent(Double.MAX_VALUE);
-		}
-		else {
-			this.nextEvent = this.updates.remove(0);
+		if (this.size == 0) {
+			return new ExternalEvent(Double.MAX_VALUE);
 		}
 		
-		return event;
+		double time = this.times[0];
+		removeFirst(); // every time is in the heap only once
+		removeFromSet(time);
+		
+		return new ExternalEvent(time);
 	}
 	
 	/**
@@ -49,7 +61,10 @@ public class ScheduledUpdatesQueue implements EventQueue {
 	 * @return the next scheduled event's time
 	 */
 	public double nextEventsTime() {
-		return this.nextEvent.getTime();
+		if (this.size == 0) {
+			return Double.MAX_VALUE;
+		}
+		return this.times[0];
 	}
 
 	/**
@@ -57,47 +72,155 @@ public class ScheduledUpdatesQueue implements EventQueue {
 	 * @param simTime The time when the update should happen
 	 */
 	public void addUpdate(double simTime) {
-		ExternalEvent ee = new ExternalEvent(simTime);
-
-		if (ee.compareTo(nextEvent) == 0) { // this event is already next
-			return;
+		if (this.size > 0 && this.times[0] == simTime) {
+			return; // this update is already next
 		}
-		else if (this.nextEvent.getTime() > simTime) { // new nextEvent
-			putToQueue(this.nextEvent); // put the old nextEvent back to q
-			this.nextEvent = ee;
+		simTime += 0.0; // -0.0 to 0.0, so equal times have equal bits
+		if (!addToSet(simTime)) {
+			return; // an update is already queued for this time
 		}
-		else { // given event happens later..
-			putToQueue(ee);
+		if (this.size == this.times.length) {
+			this.times = Arrays.copyOf(this.times, 2 * this.size);
 		}
+		
+		/* move the later parents down until the place of the time is found */
+		int pos = this.size++;
+		while (pos > 0) {
+			int parent = (pos - 1) / 2;
+			if (this.times[parent] <= simTime) {
+				break;
+			}
+			this.times[pos] = this.times[parent];
+			pos = parent;
+		}
+		this.times[pos] = simTime;
 	}
 	
 	/**
-	 * Puts a event to the queue in the right place
-	 * @param ee The event to put to the queue
+	 * Removes the first (earliest) time from the heap
 	 */
-	private void putToQueue(ExternalEvent ee) {
-		double eeTime = ee.getTime();
+	private void removeFirst() {
+		double last = this.times[--this.size];
+		int pos = 0;
 		
-		for (int i=0, n=this.updates.size(); i<n; i++) {
-			double time = updates.get(i).getTime();
-			if (time == eeTime) {
-				return; // update with the given time exists -> no need for new
+		/* move the earlier children up until the place of the last is found */
+		while (true) {
+			int child = 2 * pos + 1;
+			if (child >= this.size) {
+				break;
 			}
-			else if (eeTime < time) {
-				this.updates.add(i, ee);
-				return;
+			if (child + 1 < this.size && 
+					this.times[child + 1] < this.times[child]) {
+				child++;
+			}
+			if (this.times[child] >= last) {
+				break;
+			}
+			this.times[pos] = this.times[child];
+			pos = child;
+		}
+		if (this.size > 0) {
+			this.times[pos] = last;
+		}
+	}
+	
+	/**
+	 * Returns the first hash set slot to probe for a time
+	 */
+	private int slotOf(long bits) {
+		int h = (int)(bits ^ (bits >>> 32)) * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & (this.slotBits.length - 1);
+	}
+	
+	/**
+	 * Adds a time to the hash set. The set is grown to keep it at most half
+	 * full, which keeps the probe sequences short.
+	 * @param time The time to add
+	 * @return True if the time was added, false if it was already in the set
+	 */
+	private boolean addToSet(double time) {
+		long bits = Double.doubleToLongBits(time);
+		int mask = this.slotBits.length - 1;
+		int slot = slotOf(bits);
+		while (this.slotUsed[slot]) {
+			if (this.slotBits[slot] == bits) {
+				return false;
 			}
+			slot = (slot + 1) & mask;
 		}
 		
-		/* all existing updates are earlier -> add to the end of the list */
-		this.updates.add(ee);  
+		if (2 * (this.size + 1) > this.slotBits.length) {
+			/* grow and add the times of the heap and the new time again */
+			this.slotBits = new long[2 * this.slotBits.length];
+			this.slotUsed = new boolean[this.slotBits.length];
+			for (int i=0; i < this.size; i++) {
+				insertToSet(Double.doubleToLongBits(this.times[i]));
+			}
+			insertToSet(bits);
+		}
+		else {
+			this.slotBits[slot] = bits;
+			this.slotUsed[slot] = true;
+		}
+		return true;
+	}
+	
+	/**
+	 * Puts bits that are not in the hash set to their first free slot
+	 */
+	private void insertToSet(long bits) {
+		int mask = this.slotBits.length - 1;
+		int slot = slotOf(bits);
+		while (this.slotUsed[slot]) {
+			slot = (slot + 1) & mask;
+		}
+		this.slotBits[slot] = bits;
+		this.slotUsed[slot] = true;
+	}
+	
+	/**
+	 * Removes a time from the hash set. The following entries of the probe
+	 * sequence are moved back to the freed slot where needed, so lookups
+	 * never stop at a slot that was freed.
+	 * @param time The time to remove, must be in the set
+	 */
+	private void removeFromSet(double time) {
+		long bits = Double.doubleToLongBits(time);
+		int mask = this.slotBits.length - 1;
+		int free = slotOf(bits);
+		while (this.slotBits[free] != bits || !this.slotUsed[free]) {
+			free = (free + 1) & mask;
+		}
+		this.slotUsed[free] = false;
+		
+		int slot = free;
+		while (true) {
+			slot = (slot + 1) & mask;
+			if (!this.slotUsed[slot]) {
+				return;
+			}
+			int home = slotOf(this.slotBits[slot]);
+			/* an entry can stay if its home is (cyclically) in (free, slot] */
+			boolean stays = (free <= slot) ? (free < home && home <= slot) :
+				(free < home || home <= slot);
+			if (!stays) {
+				this.slotBits[free] = this.slotBits[slot];
+				this.slotUsed[free] = true;
+				this.slotUsed[slot] = false;
+				free = slot;
+			}
+		}
 	}
 	
 	public String toString() {
-		String times = "updates @ " + this.nextEvent.getTime();
+		double[] sorted = Arrays.copyOf(this.times, this.size);
+		Arrays.sort(sorted);
+		String times = "updates @ " + nextEventsTime();
 		
-		for (ExternalEvent ee : this.updates) {
-			times += ", " + ee.getTime();
+		for (int i=1; i < sorted.length; i++) {
+			if (sorted[i] != sorted[i-1]) {
+				times += ", " + sorted[i];
+			}
 		}
 		
 		return times;
@@ -11,9 +11,9 @@ import java.util.HashMap;
 import movement.MovementModel;
 
 import core.Coord;
-import core.DTNSim;
 import core.NetworkInterface;
 import core.Settings;
+import core.SimContext;
 
 /**
  * <P>
@@ -43,23 +43,13 @@ public class ConnectivityGrid extends ConnectivityOptimizer {
 	private int cellSize;
 	private int rows;
 	private int cols;
-	private static int worldSizeX;
-	private static int worldSizeY;
 
-	static HashMap<Integer,ConnectivityGrid> gridobjects;
-
-	static {
-		DTNSim.registerForReset(ConnectivityGrid.class.getCanonicalName());
-		reset();
-	}
-	
+	/**
+	 * Removes the connectivity grids of the current context
+	 * @see SimContext#getConnectivityGrids()
+	 */
 	public static void reset() {
-		gridobjects = new HashMap<Integer,ConnectivityGrid>();
-
-		Settings s = new Settings(MovementModel.MOVEMENT_MODEL_NS);
-		int [] worldSize = s.getCsvInts(MovementModel.WORLD_SIZE,2);
-		worldSizeX = worldSize[0];
-		worldSizeY = worldSize[1];
+		SimContext.getCurrent().getConnectivityGrids().clear();
 	}
 
 	/**
@@ -67,8 +57,10 @@ public class ConnectivityGrid extends ConnectivityOptimizer {
 	 *
 	 * @param cellSize Cell's edge's length (must be larger than the largest
 	 * 	radio coverage's diameter)
+	 * @param worldSizeX Width of the world
+	 * @param worldSizeY Height of the world
 	 */
-	private ConnectivityGrid(int cellSize) {
+	private ConnectivityGrid(int cellSize, int worldSizeX, int worldSizeY) {
 		this.rows = worldSizeY/cellSize + 1;
 		this.cols = worldSizeX/cellSize + 1;
 		// leave empty cells on both sides to make neighbor search easier 
@@ -92,11 +84,16 @@ public class ConnectivityGrid extends ConnectivityOptimizer {
 	 */
 	public static ConnectivityGrid ConnectivityGridFactory(int key, 
 			double cellSize) {
+		HashMap<Integer,ConnectivityGrid> gridobjects = 
+			SimContext.getCurrent().getConnectivityGrids();
 		if (gridobjects.containsKey((Integer)key)) {
 			return (ConnectivityGrid)gridobjects.get((Integer)key);
 		} else {
+			Settings s = new Settings(MovementModel.MOVEMENT_MODEL_NS);
+			int [] worldSize = s.getCsvInts(MovementModel.WORLD_SIZE,2);
 			ConnectivityGrid newgrid = 
-				new ConnectivityGrid((int)Math.ceil(cellSize));
+				new ConnectivityGrid((int)Math.ceil(cellSize), worldSize[0],
+						worldSize[1]);
 			gridobjects.put((Integer)key,newgrid);
 			return newgrid;
 		}
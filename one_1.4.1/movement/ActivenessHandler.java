@@ -35,6 +35,18 @@ public class ActivenessHandler {
 		}			
 	}
 	
+	/**
+	 * Copy constructor. The copy has the same active times, but it is
+	 * advanced independently of the original.
+	 * @param ah The handler to copy
+	 */
+	public ActivenessHandler(ActivenessHandler ah) {
+		if (ah.activeTimes != null) {
+			this.activeTimes = new LinkedList<TimeRange>(ah.activeTimes);
+		}
+		this.curRange = ah.curRange;
+	}
+	
 	private Queue<TimeRange> parseActiveTimes(Settings s) {
 		double [] times;
 		String sName = s.getFullPropertyName(ACTIVE_TIMES_S);
@@ -94,6 +106,26 @@ public class ActivenessHandler {
 		return curRange.isInRange(time);
 	}
 
+	/**
+	 * Returns the next time when the activeness of the node may change
+	 * @return The next start or end of an active time, the current time if
+	 * the current active time has already ended, or Double.MAX_VALUE if the
+	 * activeness does not change anymore
+	 */
+	public double getNextChangeTime() {
+		if (this.activeTimes == null || this.curRange == null) {
+			return Double.MAX_VALUE;
+		}
+		double time = SimClock.getTime();
+		if (time < this.curRange.start) {
+			return this.curRange.start;
+		}
+		if (this.curRange.isOut(time)) {
+			return time; // next range is taken into use by isActive()
+		}
+		return this.curRange.end;
+	}
+
 	/**
 	 * Class for handling time ranges
 	 */
@@ -77,6 +77,16 @@ public class BusMovement extends MapRouteMovement {
 	public BusMovement replicate() {
 		return new BusMovement(this);
 	}
+	
+	/**
+	 * Returns false, buses share their control system with the
+	 * travellers.
+	 * @return false
+	 */
+	@Override
+	public boolean canMoveInParallel() {
+		return false;
+	}
 
 	/**
 	 * Returns unique ID of the bus
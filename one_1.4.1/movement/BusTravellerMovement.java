@@ -166,6 +166,15 @@ public class BusTravellerMovement extends MapBasedMovement implements
 	public MapBasedMovement replicate() {
 		return new BusTravellerMovement(this);
 	}
+	
+	/**
+	 * Returns false, travellers share their bus control system.
+	 * @return false
+	 */
+	@Override
+	public boolean canMoveInParallel() {
+		return false;
+	}
 
 	public int getState() {
 		return state;
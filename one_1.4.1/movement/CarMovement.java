@@ -41,6 +41,15 @@ public class CarMovement extends MapBasedMovement implements
 		super(proto);
 		this.pathFinder = proto.pathFinder;
 	}
+	
+	/**
+	 * Returns false, hosts share their path finder.
+	 * @return false
+	 */
+	@Override
+	public boolean canMoveInParallel() {
+		return false;
+	}
 
 	/**
 	 * Sets the next route to be taken
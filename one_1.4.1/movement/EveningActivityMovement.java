@@ -226,6 +226,16 @@ public class EveningActivityMovement extends MapBasedMovement
 	public MapBasedMovement replicate() {
 		return new EveningActivityMovement(this);
 	}
+	
+	/**
+	 * Returns false, hosts share their evening activity control
+	 * system.
+	 * @return false
+	 */
+	@Override
+	public boolean canMoveInParallel() {
+		return false;
+	}
 
 	/**
 	 * @see SwitchableMovement
@@ -153,6 +153,11 @@ public class ExternalMovement extends MovementModel {
 	public boolean isActive() {
 		return isActive;
 	}
+	
+	@Override
+	public double getNextActivenessChange() {
+		return SimClock.getTime(); // may change with any update
+	}
 
 	/**
 	 * Adds a new location with a time to this model's move pattern. If the
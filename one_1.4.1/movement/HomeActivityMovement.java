@@ -216,6 +216,15 @@ public class HomeActivityMovement extends MapBasedMovement
 	public MapBasedMovement replicate() {
 		return new HomeActivityMovement(this);
 	}
+	
+	/**
+	 * Returns false, hosts share their path finder.
+	 * @return false
+	 */
+	@Override
+	public boolean canMoveInParallel() {
+		return false;
+	}
 
 	/**
 	 * @see SwitchableMovement
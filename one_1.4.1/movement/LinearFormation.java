@@ -112,5 +112,15 @@ public class LinearFormation extends MovementModel {
 	public LinearFormation replicate() {
 		return new LinearFormation(this);
 	}
+	
+	@Override
+	public boolean canMoveInParallel() {
+		return true;
+	}
+	
+	@Override
+	public double getMaxSpeed() {
+		return 0;
+	}
 
 }
@@ -401,6 +401,16 @@ public class MapBasedMovement extends MovementModel implements SwitchableMovemen
 		return new MapBasedMovement(this);
 	}
 	
+	/**
+	 * Returns true, map based movement only reads the shared map. 
+	 * Subclasses sharing other state between hosts must override this.
+	 * @return true
+	 */
+	@Override
+	public boolean canMoveInParallel() {
+		return true;
+	}
+	
 	public Coord getLastLocation() {
 		if (lastMapNode != null) {
 			return lastMapNode.getLocation();
@@ -94,7 +94,8 @@ public class MapRouteMovement extends MapBasedMovement implements
 			this.route.setNextIndex(this.firstStopIndex);
 		}
 		
-		this.pathFinder = proto.pathFinder;
+		// every host has its own path finder to move in parallel
+		this.pathFinder = new DijkstraPathFinder(getOkMapNodeTypes());
 		
 		proto.nextRouteIndex++; // give routes in order
 		if (proto.nextRouteIndex >= proto.allRoutes.size()) {
@@ -148,6 +149,11 @@ public class MapRouteMovement extends MapBasedMovement implements
 	public MapRouteMovement replicate() {
 		return new MapRouteMovement(this);
 	}	
+
+	@Override
+	public double getMaxSpeed() {
+		return this.maxSpeed;
+	}
 
 	/**
 	 * Returns the list of stops on the route
@@ -7,11 +7,11 @@ package movement;
 import java.util.Random;
 
 import core.Coord;
-import core.DTNSim;
 import core.ModuleCommunicationBus;
 import core.Settings;
 import core.SimClock;
 import core.SimError;
+import core.SimRandom;
 
 /**
  * <P>Superclass for all movement models. All subclasses must contain at least a 
@@ -42,8 +42,8 @@ public abstract class MovementModel {
 	/** movement models' rng seed -setting id ({@value})*/
 	public static final String RNG_SEED = "rngSeed";
 	
-	/** common rng for all movement models in the simulation */
-	protected static Random rng; 
+	/** rng of this movement model, see {@link #createRng()} */
+	protected Random rng;
 	
 	private ActivenessHandler ah;
 		
@@ -57,12 +57,6 @@ public abstract class MovementModel {
 	
 	protected ModuleCommunicationBus comBus;
 
-	// static initialization of all movement models' random number generator
-	static {
-		DTNSim.registerForReset(MovementModel.class.getCanonicalName());				
-		reset();
-	}
-	
 	/**
 	 * Checks that the minimum setting is not bigger than the maximum and
 	 * that both are positive
@@ -87,6 +81,7 @@ public abstract class MovementModel {
 	 */
 	public MovementModel() {
 		super();
+		this.rng = createRng();
 	}
 	
 	/**
@@ -98,6 +93,7 @@ public abstract class MovementModel {
 		double[] times;
 		
 		ah = new ActivenessHandler(settings);
+		this.rng = createRng();
 		
 		if (settings.contains(SPEED)) {
 			speeds = settings.getCsvDoubles(SPEED, 2);
@@ -141,8 +137,21 @@ public abstract class MovementModel {
 		this.minWaitTime = mm.minWaitTime;
 		this.maxX = mm.maxX;
 		this.maxY = mm.maxY;
-		this.ah = mm.ah;
+		this.ah = (mm.ah == null ? null : new ActivenessHandler(mm.ah));
 		this.comBus = null;
+		this.rng = createRng();
+	}
+	
+	/**
+	 * Creates the rng of a new movement model. Every model gets its own 
+	 * {@link SimRandom} stream, numbered in the order the models are 
+	 * created. Since hosts are always created in the same order, the random
+	 * numbers of a host do not depend on the order in which the hosts are
+	 * moved.
+	 * @return A new random number generator
+	 */
+	private static Random createRng() {
+		return SimRandom.nextRandom(MOVEMENT_MODEL_NS);
 	}
 		
 	/**
@@ -210,6 +219,41 @@ public abstract class MovementModel {
 	public boolean isActive() {
 		return ah.isActive();
 	}
+	
+	/**
+	 * Returns the next time when the activeness of the node may change. 
+	 * Models that change the activeness in other ways than with the active
+	 * times should override this.
+	 * @return The time of the next change or Double.MAX_VALUE if the 
+	 * activeness does not change anymore
+	 */
+	public double getNextActivenessChange() {
+		return ah.getNextChangeTime();
+	}
+	
+	/**
+	 * Returns the highest speed at which the node may move, i.e., an upper
+	 * bound for the speeds of the paths of this model. Models whose paths
+	 * use only speeds from {@link #generateSpeed()} may return the maximum
+	 * of the speed setting. 
+	 * @return The highest speed or Double.MAX_VALUE if it is not known, 
+	 * which is the default
+	 */
+	public double getMaxSpeed() {
+		return Double.MAX_VALUE;
+	}
+	
+	/**
+	 * Returns true if the host of this model can move in parallel with other
+	 * hosts, i.e., if {@link #getPath()} and {@link #nextPathAvailable()} 
+	 * only change the state of this model. Models sharing state between
+	 * hosts (e.g., control systems or path finders) must return false, which
+	 * is the default.
+	 * @return true if the model can move in parallel with others
+	 */
+	public boolean canMoveInParallel() {
+		return false;
+	}
 		
 	/**
 	 * Returns a sim time when the next path is available. This implementation
@@ -250,18 +294,4 @@ public abstract class MovementModel {
 	 */
 	public abstract MovementModel replicate();
 	
-	/**
-	 * Resets all static fields to default values
-	 */
-	public static void reset() {
-		Settings s = new Settings(MOVEMENT_MODEL_NS);
-		if (s.contains(RNG_SEED)) {
-			int seed = s.getInt(RNG_SEED);
-			rng = new Random(seed);
-		}
-		else {
-			rng = new Random(0);
-		}
-	}
-	
 }
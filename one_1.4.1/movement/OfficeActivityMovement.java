@@ -250,6 +250,16 @@ public class OfficeActivityMovement extends MapBasedMovement implements
 	public MapBasedMovement replicate() {
 		return new OfficeActivityMovement(this);
 	}
+	
+	/**
+	 * Returns false, hosts share their path finder and pareto
+	 * rng.
+	 * @return false
+	 */
+	@Override
+	public boolean canMoveInParallel() {
+		return false;
+	}
 
 	/**
 	 * @see SwitchableMovement
@@ -80,6 +80,16 @@ public class RandomWalk extends MovementModel implements SwitchableMovement {
 	public RandomWalk replicate() {
 		return new RandomWalk(this);
 	}
+	
+	@Override
+	public boolean canMoveInParallel() {
+		return true;
+	}
+	
+	@Override
+	public double getMaxSpeed() {
+		return this.maxSpeed;
+	}
 
 	public Coord getLastLocation() {
 		return lastWaypoint;
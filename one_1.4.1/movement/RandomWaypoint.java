@@ -58,6 +58,16 @@ public class RandomWaypoint extends MovementModel {
 		return new RandomWaypoint(this);
 	}
 	
+	@Override
+	public boolean canMoveInParallel() {
+		return true;
+	}
+	
+	@Override
+	public double getMaxSpeed() {
+		return this.maxSpeed;
+	}
+	
 	protected Coord randomCoord() {
 		return new Coord(rng.nextDouble() * getMaxX(),
 				rng.nextDouble() * getMaxY());
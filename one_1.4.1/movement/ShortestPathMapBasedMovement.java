@@ -41,8 +41,9 @@ public class ShortestPathMapBasedMovement extends MapBasedMovement implements
 	 */
 	protected ShortestPathMapBasedMovement(ShortestPathMapBasedMovement mbm) {
 		super(mbm);
-		this.pathFinder = mbm.pathFinder;
-		this.pois = mbm.pois;
+		// every host has its own path finder and rng to move in parallel
+		this.pathFinder = new DijkstraPathFinder(getOkMapNodeTypes());
+		this.pois = new PointsOfInterest(mbm.pois, rng);
 	}
 	
 	@Override
@@ -69,5 +70,10 @@ public class ShortestPathMapBasedMovement extends MapBasedMovement implements
 	public ShortestPathMapBasedMovement replicate() {
 		return new ShortestPathMapBasedMovement(this);
 	}
+
+	@Override
+	public double getMaxSpeed() {
+		return this.maxSpeed;
+	}
 
 }
@@ -66,5 +66,15 @@ public class StationaryMovement extends MovementModel {
 	public StationaryMovement replicate() {
 		return new StationaryMovement(this);
 	}
+	
+	@Override
+	public boolean canMoveInParallel() {
+		return true;
+	}
+	
+	@Override
+	public double getMaxSpeed() {
+		return 0;
+	}
 
 }
@@ -7,7 +7,7 @@ package report;
 
 import applications.ResourceManagementApplication;
 import core.Application;
-import core.ApplicationListener;
+import core.TypedApplicationListener;
 import core.DTNHost;
 
 /**
@@ -18,58 +18,56 @@ import core.DTNHost;
  * @author Dominik Schürmann
  */
 public class ResourceManagementAppReporter extends Report implements
-        ApplicationListener {
+        TypedApplicationListener {
 
-    private int requestsSent = 0, requestsReceived = 0;
-    private int responsesSent = 0, responsesReceived = 0;
-    private int unidirectionalSent = 0, unidirectionalReceived = 0;
+    /** number of events, indexed by event type */
+    private int[] counts = new int[ResourceManagementApplication.NROF_EVENTS];
 
-    private int requestsSentResHog = 0, requestsReceivedResHog = 0;
-    private int responsesSentResHog = 0, responsesReceivedResHog = 0;
-
-    public void gotEvent(String event, Object params, Application app,
+    public void gotEvent(int eventType, Object params, Application app,
             DTNHost host) {
         // Check that the event is sent by correct application type
         if (!(app instanceof ResourceManagementApplication))
             return;
 
-        // Increment the counters based on the event type
-        if (event.equalsIgnoreCase("GotRequest")) {
-            requestsReceived++;
-        }
-        if (event.equalsIgnoreCase("SentResponse")) {
-            responsesSent++;
-        }
-        if (event.equalsIgnoreCase("GotResponse")) {
-            responsesReceived++;
-        }
-        if (event.equalsIgnoreCase("SentRequest")) {
-            requestsSent++;
-        }
-        if (event.equalsIgnoreCase("GotUnidirectional")) {
-            unidirectionalReceived++;
-        }
-        if (event.equalsIgnoreCase("SentUnidirectional")) {
-            unidirectionalSent++;
-        }
+        // Increment the counter of the event type
+        counts[eventType]++;
+    }
 
-        if (event.equalsIgnoreCase("GotRequestResHog")) {
-            requestsReceivedResHog++;
-        }
-        if (event.equalsIgnoreCase("SentResponseResHog")) {
-            responsesSentResHog++;
-        }
-        if (event.equalsIgnoreCase("GotResponseResHog")) {
-            responsesReceivedResHog++;
-        }
-        if (event.equalsIgnoreCase("SentRequestResHog")) {
-            requestsSentResHog++;
+    public void gotEvent(String event, Object params, Application app,
+            DTNHost host) {
+        // Events sent only by name, look up their type
+        String[] names = ResourceManagementApplication.EVENT_NAMES;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(event)) {
+                gotEvent(i, params, app, host);
+                return;
+            }
         }
-
     }
 
     @Override
     public void done() {
+        int requestsSent = counts[ResourceManagementApplication.
+                EVENT_SENT_REQUEST];
+        int requestsReceived = counts[ResourceManagementApplication.
+                EVENT_GOT_REQUEST];
+        int responsesSent = counts[ResourceManagementApplication.
+                EVENT_SENT_RESPONSE];
+        int responsesReceived = counts[ResourceManagementApplication.
+                EVENT_GOT_RESPONSE];
+        int unidirectionalSent = counts[ResourceManagementApplication.
+                EVENT_SENT_UNIDIRECTIONAL];
+        int unidirectionalReceived = counts[ResourceManagementApplication.
+                EVENT_GOT_UNIDIRECTIONAL];
+        int requestsSentResHog = counts[ResourceManagementApplication.
+                EVENT_SENT_REQUEST_RES_HOG];
+        int requestsReceivedResHog = counts[ResourceManagementApplication.
+                EVENT_GOT_REQUEST_RES_HOG];
+        int responsesSentResHog = counts[ResourceManagementApplication.
+                EVENT_SENT_RESPONSE_RES_HOG];
+        int responsesReceivedResHog = counts[ResourceManagementApplication.
+                EVENT_GOT_RESPONSE_RES_HOG];
+
         write("Stats for scenario " + getScenarioName() + "\nsim_time: "
                 + format(getSimTime()));
         double requestProb = 0; // request probability
@@ -80,41 +78,41 @@ public class ResourceManagementAppReporter extends Report implements
         double responseProbResHog = 0; // response probability
         double successProbResHog = 0; // success probability
 
-        if (this.requestsSent > 0) {
-            requestProb = (1.0 * this.requestsReceived) / this.requestsSent;
+        if (requestsSent > 0) {
+            requestProb = (1.0 * requestsReceived) / requestsSent;
         }
-        if (this.responsesSent > 0) {
-            responseProb = (1.0 * this.responsesReceived) / this.responsesSent;
+        if (responsesSent > 0) {
+            responseProb = (1.0 * responsesReceived) / responsesSent;
         }
-        if (this.requestsSent > 0) {
-            successProb = (1.0 * this.responsesReceived) / this.requestsSent;
+        if (requestsSent > 0) {
+            successProb = (1.0 * responsesReceived) / requestsSent;
         }
 
-        if (this.requestsSentResHog > 0) {
-            requestProbResHog = (1.0 * this.requestsReceivedResHog)
-                    / this.requestsSentResHog;
+        if (requestsSentResHog > 0) {
+            requestProbResHog = (1.0 * requestsReceivedResHog)
+                    / requestsSentResHog;
         }
-        if (this.responsesSentResHog > 0) {
-            responseProbResHog = (1.0 * this.responsesReceivedResHog)
-                    / this.responsesSentResHog;
+        if (responsesSentResHog > 0) {
+            responseProbResHog = (1.0 * responsesReceivedResHog)
+                    / responsesSentResHog;
         }
 
-        if (this.requestsSentResHog > 0) {
-            successProbResHog = (1.0 * this.responsesReceivedResHog)
-                    / this.requestsSentResHog;
+        if (requestsSentResHog > 0) {
+            successProbResHog = (1.0 * responsesReceivedResHog)
+                    / requestsSentResHog;
         }
 
-        String statsText = "requests sent: " + this.requestsSent
-                + "\nrequests received: " + this.requestsReceived
-                + "\nresponses sent: " + this.responsesSent
-                + "\nresponses received: " + this.responsesReceived
-                + "\nrequests reshog sent: " + this.requestsSentResHog
-                + "\nrequests reshog received: " + this.requestsReceivedResHog
-                + "\nresponses reshog sent: " + this.responsesSentResHog
+        String statsText = "requests sent: " + requestsSent
+                + "\nrequests received: " + requestsReceived
+                + "\nresponses sent: " + responsesSent
+                + "\nresponses received: " + responsesReceived
+                + "\nrequests reshog sent: " + requestsSentResHog
+                + "\nrequests reshog received: " + requestsReceivedResHog
+                + "\nresponses reshog sent: " + responsesSentResHog
                 + "\nresponses reshog received: "
-                + this.responsesReceivedResHog + "\nunidirectional sent: "
-                + this.unidirectionalSent + "\nunidirectional received: "
-                + this.unidirectionalReceived + "\nrequest delivery prob: "
+                + responsesReceivedResHog + "\nunidirectional sent: "
+                + unidirectionalSent + "\nunidirectional received: "
+                + unidirectionalReceived + "\nrequest delivery prob: "
                 + format(requestProb) + "\nresponse delivery prob: "
                 + format(responseProb) + "\nrequest/response success prob: "
                 + format(successProb) + "\nrequest reshog delivery prob: "
@@ -0,0 +1,290 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+
+package report;
+
+import java.util.Arrays;
+import java.util.List;
+
+import applications.ResourceManagementBuffer;
+import applications.ResourceManagementBufferStore;
+import core.DTNHost;
+import core.Settings;
+import core.UpdateListener;
+
+/**
+ * Buffer occupancy and eviction report for the
+ * <code>ResourceManagementApplication</code>. Samples the buffers of all nodes
+ * every <code>granularity</code> seconds. For the columns of a sample see
+ * {@link #HEADER}, drops, iterations, evictions and latency are counted since
+ * the previous sample. The last columns are the bytes in the partitions of
+ * every source node (address 0, 1, ...) summed over all buffers.
+ * 
+ * Samples are stored in preallocated primitive arrays, which are written to
+ * the report when they are full and at the end of the simulation, so taking a
+ * sample does not allocate any objects. The partition columns are limited to
+ * {@link #MAX_PARTITION_VALUES} values in memory, so with many nodes the
+ * samples are written more often. At the end, the totals of every node
+ * buffer and the drops by partition (source node) are written.
+ * 
+ * @see ResourceManagementBuffer
+ * @author Dominik Schürmann
+ */
+public class ResourceManagementBufferReport extends Report implements
+        UpdateListener {
+
+    /**
+     * Reporting granularity -setting id ({@value}). Defines the interval how
+     * often (seconds) a new sample is taken
+     */
+    public static final String GRANULARITY = "granularity";
+    /**
+     * Number of samples kept in memory before they are written -setting id
+     * ({@value}). Defaults to {@link #DEF_SAMPLE_BUFFER_SIZE}
+     */
+    public static final String SAMPLE_BUFFER_SIZE = "sampleBufferSize";
+    public static final int DEF_SAMPLE_BUFFER_SIZE = 1024;
+    /**
+     * Maximum number of partition values kept in memory (8 MB). With many
+     * nodes, fewer samples than the sample buffer size are kept before they
+     * are written.
+     */
+    public static final int MAX_PARTITION_VALUES = 1 << 20;
+
+    public static final String HEADER = "# time bytes buffers maxFill% "
+            + "drops iterations evictions avgEvictionLatencyUs "
+            + "partitionBytes...";
+
+    /** value of the granularity setting */
+    protected final int granularity;
+    /** time of last sample */
+    protected double lastUpdate;
+
+    /* sample columns */
+    private double[] sampleTimes;
+    private long[] sampleBytes;
+    private int[] sampleBuffers;
+    private int[] sampleMaxFill;
+    private long[] sampleDrops;
+    private long[] sampleIterations;
+    private long[] sampleEvictions;
+    private long[] sampleEvictionTimes;
+    /** bytes by partition, nrofPartitions values per sample */
+    private long[] samplePartitionBytes;
+    /** number of partitions (nodes) in a sample */
+    private int nrofPartitions;
+    /** number of samples kept in memory before they are written */
+    private int sampleCapacity;
+    /** number of samples not yet written */
+    private int nrofSamples;
+
+    /* totals at the previous sample */
+    private long lastDrops;
+    private long lastIterations;
+    private long lastEvictions;
+    private long lastEvictionTime;
+
+    /**
+     * Constructor. Reads the settings and initializes the report module.
+     */
+    public ResourceManagementBufferReport() {
+        Settings settings = getSettings();
+        this.granularity = settings.getInt(GRANULARITY);
+
+        int size = DEF_SAMPLE_BUFFER_SIZE;
+        if (settings.contains(SAMPLE_BUFFER_SIZE)) {
+            size = settings.getInt(SAMPLE_BUFFER_SIZE);
+        }
+        this.sampleTimes = new double[size];
+        this.sampleBytes = new long[size];
+        this.sampleBuffers = new int[size];
+        this.sampleMaxFill = new int[size];
+        this.sampleDrops = new long[size];
+        this.sampleIterations = new long[size];
+        this.sampleEvictions = new long[size];
+        this.sampleEvictionTimes = new long[size];
+
+        init();
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        this.lastUpdate = 0;
+        this.nrofSamples = 0;
+        this.lastDrops = 0;
+        this.lastIterations = 0;
+        this.lastEvictions = 0;
+        this.lastEvictionTime = 0;
+        this.samplePartitionBytes = null;
+        write(HEADER);
+    }
+
+    /**
+     * Takes a new sample if "granularity" seconds have passed since the last
+     * sample.
+     * 
+     * @param hosts
+     *            All the hosts in the world
+     */
+    public void updated(List<DTNHost> hosts) {
+        double simTime = getSimTime();
+        if (isWarmup()) {
+            return; /* warmup period is on */
+        }
+        if (samplePartitionBytes == null) {
+            /* partitions are the source nodes, one per host */
+            this.nrofPartitions = hosts.size();
+            this.sampleCapacity = Math.max(1, Math.min(sampleTimes.length,
+                    MAX_PARTITION_VALUES / Math.max(1, nrofPartitions)));
+            this.samplePartitionBytes = new long[sampleCapacity
+                    * nrofPartitions];
+        }
+        /* takes a sample once every granularity seconds */
+        if (simTime - lastUpdate >= granularity) {
+            sample(simTime);
+            this.lastUpdate = simTime - simTime % granularity;
+        }
+    }
+
+    /**
+     * Sums up the statistics of all buffers into the next sample
+     */
+    private void sample(double simTime) {
+        ResourceManagementBufferStore store = ResourceManagementBufferStore
+                .getCurrentStore();
+        long bytes = 0;
+        int buffers = 0;
+        int maxFill = 0;
+        long drops = 0;
+        long iterations = 0;
+        long evictions = 0;
+        long evictionTime = 0;
+        int s = nrofSamples++;
+        int partitionOffset = s * nrofPartitions;
+        Arrays.fill(samplePartitionBytes, partitionOffset, partitionOffset
+                + nrofPartitions, 0);
+
+        if (store != null) {
+            for (int i = 0, n = store.getNrofAddresses(); i < n; i++) {
+                ResourceManagementBuffer b = store.getExistingBuffer(i);
+                if (b == null) {
+                    continue;
+                }
+                buffers++;
+                bytes += b.getUsage();
+                int fill = (int) (100L * b.getUsage() / b.getMaxBufferSize());
+                if (fill > maxFill) {
+                    maxFill = fill;
+                }
+                drops += b.getDrops();
+                iterations += b.getDropLoopIterations();
+                evictions += b.getEvictions();
+                evictionTime += b.getEvictionTime();
+                b.addPartitionUsages(samplePartitionBytes, partitionOffset,
+                        nrofPartitions);
+            }
+        }
+
+        sampleTimes[s] = simTime;
+        sampleBytes[s] = bytes;
+        sampleBuffers[s] = buffers;
+        sampleMaxFill[s] = maxFill;
+        sampleDrops[s] = drops - lastDrops;
+        sampleIterations[s] = iterations - lastIterations;
+        sampleEvictions[s] = evictions - lastEvictions;
+        sampleEvictionTimes[s] = evictionTime - lastEvictionTime;
+
+        lastDrops = drops;
+        lastIterations = iterations;
+        lastEvictions = evictions;
+        lastEvictionTime = evictionTime;
+
+        if (nrofSamples == sampleCapacity) {
+            writeSamples();
+        }
+    }
+
+    /**
+     * Writes all samples kept in memory to the report
+     */
+    private void writeSamples() {
+        for (int i = 0; i < nrofSamples; i++) {
+            StringBuilder line = new StringBuilder();
+            line.append(format(sampleTimes[i])).append(" ")
+                    .append(sampleBytes[i]).append(" ")
+                    .append(sampleBuffers[i]).append(" ")
+                    .append(sampleMaxFill[i]).append(" ")
+                    .append(sampleDrops[i]).append(" ")
+                    .append(sampleIterations[i]).append(" ")
+                    .append(sampleEvictions[i]).append(" ")
+                    .append(formatLatency(sampleEvictionTimes[i],
+                            sampleEvictions[i]));
+            int offset = i * nrofPartitions;
+            for (int p = 0; p < nrofPartitions; p++) {
+                line.append(" ").append(samplePartitionBytes[offset + p]);
+            }
+            write(line.toString());
+        }
+        nrofSamples = 0;
+    }
+
+    /**
+     * Returns the average eviction latency in microseconds
+     */
+    private String formatLatency(long evictionTime, long evictions) {
+        if (evictions == 0) {
+            return format(0);
+        }
+        return format(evictionTime / 1000.0 / evictions);
+    }
+
+    @Override
+    public void done() {
+        writeSamples();
+
+        ResourceManagementBufferStore store = ResourceManagementBufferStore
+                .getCurrentStore();
+        if (store == null) {
+            super.done();
+            return;
+        }
+
+        // totals by node
+        write("# node maxSize peakBytes bytes drops iterations evictions "
+                + "avgEvictionLatencyUs");
+        long[] partitionDrops = new long[0];
+        for (int i = 0, n = store.getNrofAddresses(); i < n; i++) {
+            ResourceManagementBuffer b = store.getExistingBuffer(i);
+            if (b == null) {
+                continue;
+            }
+            write(i + " " + b.getMaxBufferSize() + " " + b.getPeakUsage()
+                    + " " + b.getUsage() + " " + b.getDrops() + " "
+                    + b.getDropLoopIterations() + " " + b.getEvictions() + " "
+                    + formatLatency(b.getEvictionTime(), b.getEvictions()));
+
+            int[] drops = b.getPartitionDrops();
+            if (drops.length > partitionDrops.length) {
+                partitionDrops = Arrays.copyOf(partitionDrops,
+                        drops.length);
+            }
+            for (int p = 0; p < drops.length; p++) {
+                partitionDrops[p] += drops[p];
+            }
+        }
+
+        // drops by partition in all buffers
+        write("# partition drops");
+        for (int p = 0; p < partitionDrops.length; p++) {
+            if (partitionDrops[p] > 0) {
+                write(p + " " + partitionDrops[p]);
+            }
+        }
+
+        super.done();
+    }
+
+}
@@ -529,6 +529,17 @@ public abstract class ActiveRouter extends MessageRouter {
 		return false;
 	}
 	
+	/**
+	 * Returns the time of the next TTL check if it is earlier than the 
+	 * next event of the applications. The TTL is checked also when there
+	 * are no messages, since that sets the time of the next check.
+	 */
+	@Override
+	public double getNextEventTime() {
+		return Math.min(super.getNextEventTime(), 
+				lastTtlCheck + TTL_CHECK_INTERVAL);
+	}
+	
 	/**
 	 * Checks out all sending connections to finalize the ready ones 
 	 * and abort those whose connection went down. Also drops messages
@@ -42,7 +42,8 @@ public class EnergyAwareRouter extends ActiveRouter
 	private double lastUpdate;
 	private double scanInterval;	
 	private ModuleCommunicationBus comBus;
-	private static Random rng = null;
+	/** {@link SimRandom} module name of the routers' streams */
+	private static final String RNG_MODULE = "EnergyAwareRouter";
 
 	/**
 	 * Constructor. Creates a new message router based on the settings in
@@ -85,9 +86,7 @@ public class EnergyAwareRouter extends ActiveRouter
 			this.currentEnergy = range[0];
 		}
 		else {
-			if (rng == null) {
-				rng = new Random((int)(range[0] + range[1]));
-			}
+			Random rng = SimRandom.nextRandom(RNG_MODULE);
 			this.currentEnergy = range[0] + 
 				rng.nextDouble() * (range[1] - range[0]);
 		}
@@ -169,6 +168,11 @@ public class EnergyAwareRouter extends ActiveRouter
 		}
 	}
 	
+	@Override
+	public double getNextEventTime() {
+		return SimClock.getTime(); // energy is reduced in every update
+	}
+	
 	@Override
 	public void update() {
 		super.update();
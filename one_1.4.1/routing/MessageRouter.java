@@ -4,6 +4,8 @@
  */
 package routing;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -12,12 +14,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 
-import applications.ResourceManagementApplication;
-
 import core.Application;
 import core.Connection;
 import core.DTNHost;
 import core.Message;
+import core.MessageBufferListener;
 import core.MessageListener;
 import core.Settings;
 import core.SettingsError;
@@ -85,6 +86,11 @@ public abstract class MessageRouter {
 
 	/** applications attached to the host */
 	private HashMap<String, Collection<Application>>	applications = null;
+	/** cached applications by application ID, see getApplicationArray */
+	private HashMap<String, Application[]> appsByID = null;
+	/** listeners informed about messages removed from the buffer */
+	private MessageBufferListener[] bufferListeners = 
+		new MessageBufferListener[0];
 	
 	/**
 	 * Constructor. Creates a new message router based on the settings in
@@ -96,6 +102,7 @@ public abstract class MessageRouter {
 		this.bufferSize = Integer.MAX_VALUE; // defaults to rather large buffer	
 		this.msgTtl = Message.INFINITE_TTL;
 		this.applications = new HashMap<String, Collection<Application>>();
+		this.appsByID = new HashMap<String, Application[]>();
 		
 		if (s.contains(B_SIZE_S)) {
 			this.bufferSize = s.getInt(B_SIZE_S);
@@ -141,6 +148,7 @@ public abstract class MessageRouter {
 		this.sendQueueMode = r.sendQueueMode;
 
 		this.applications = new HashMap<String, Collection<Application>>();
+		this.appsByID = new HashMap<String, Application[]>();
 		for (Collection<Application> apps : r.applications.values()) {
 			for (Application app : apps) {
 				addApplication(app.replicate());
@@ -159,6 +167,25 @@ public abstract class MessageRouter {
 				app.update(this.host);
 			}
 		}
+	}
+	
+	/**
+	 * Returns the earliest time when {@link #update()} may do something 
+	 * while the host has no connections, e.g., drop expired messages. Used
+	 * by the discrete event engine of the world for skipping updates. This
+	 * implementation returns the earliest next event time of the 
+	 * applications. Routers that do something in every update must return
+	 * the current time.
+	 * @return The time of the next update that is needed
+	 */
+	public double getNextEventTime() {
+		double next = Double.MAX_VALUE;
+		for (Collection<Application> apps : this.applications.values()) {
+			for (Application app : apps) {
+				next = Math.min(next, app.getNextEventTime(this.host));
+			}
+		}
+		return next;
 	}
 	
 	/**
@@ -323,10 +350,11 @@ public abstract class MessageRouter {
 		
 		// Pass the message to the application (if any) and get outgoing message
 		Message outgoing = incoming;
-		for (Application app : getApplications(incoming.getAppID())) {
+		Application[] apps = getApplicationArray(incoming.getAppID());
+		for (int i = 0; i < apps.length; i++) {
 			// Note that the order of applications is significant
 			// since the next one gets the output of the previous.
-			outgoing = app.handle(outgoing, this.host);
+			outgoing = apps[i].handle(outgoing, this.host);
 			if (outgoing == null) break; // Some app wanted to drop the message
 		}
 		
@@ -453,24 +481,52 @@ public abstract class MessageRouter {
 	 * because it was delivered to final destination.  
 	 */
 	public void deleteMessage(String id, boolean drop) {
-	    // IMPORTANT: ALSO DROP FROM RESOURCE MANAGEMENT BUFFER!!!
-        //-------------------------------------------
-        Collection<Application> apps = this
-                        .getApplications(ResourceManagementApplication.APP_ID);
-        for (Application app : apps) {
-                ResourceManagementApplication resourceManagementApp = (ResourceManagementApplication) app;
-                resourceManagementApp.deleteMessage(this.getHost(), id);
-        }
-        //-------------------------------------------
-        
 		Message removed = removeFromMessages(id); 
 		if (removed == null) throw new SimError("no message for id " +
 				id + " to remove at " + this.host);
 		
+		for (int i=0; i<this.bufferListeners.length; i++) {
+			this.bufferListeners[i].messageRemoved(removed, this.host, drop);
+		}
+		
 		for (MessageListener ml : this.mListeners) {
 			ml.messageDeleted(removed, this.host, drop);
 		}
 	}
+	
+	/**
+	 * Deletes several messages from the buffer and informs the listeners
+	 * about all of them after the messages have been removed. Unlike 
+	 * {@link #deleteMessage(String, boolean)}, IDs of messages that are not 
+	 * in the buffer are skipped.
+	 * @param ids Identifiers of the messages to delete
+	 * @param drop If the messages are dropped (see 
+	 * {@link #deleteMessage(String, boolean)})
+	 * @return The number of deleted messages
+	 */
+	public int deleteMessages(List<String> ids, boolean drop) {
+		List<Message> removed = new ArrayList<Message>(ids.size());
+		for (int i=0, n=ids.size(); i<n; i++) {
+			Message m = removeFromMessages(ids.get(i));
+			if (m != null) {
+				removed.add(m);
+			}
+		}
+		
+		for (int i=0; i<this.bufferListeners.length; i++) {
+			for (Message m : removed) {
+				this.bufferListeners[i].messageRemoved(m, this.host, drop);
+			}
+		}
+		
+		for (MessageListener ml : this.mListeners) {
+			for (Message m : removed) {
+				ml.messageDeleted(m, this.host, drop);
+			}
+		}
+		
+		return removed.size();
+	}
 	
 	/**
 	 * Sorts/shuffles the given list according to the current sending queue 
@@ -581,7 +637,9 @@ public abstract class MessageRouter {
 	}
 	
 	/** 
-	 * Adds an application to the attached applications list.
+	 * Adds an application to the attached applications list. Applications 
+	 * implementing {@link MessageBufferListener} are also added as buffer
+	 * listeners.
 	 * 
 	 * @param app	The application to attach to this router.
 	 */
@@ -591,6 +649,25 @@ public abstract class MessageRouter {
 					new LinkedList<Application>());
 		}
 		this.applications.get(app.getAppID()).add(app);
+		this.appsByID.clear();
+		
+		if (app instanceof MessageBufferListener) {
+			addBufferListener((MessageBufferListener)app);
+		}
+	}
+	
+	/**
+	 * Adds a listener that is informed about every message deleted from the
+	 * buffer of this router.
+	 * 
+	 * @param l The listener
+	 */
+	public void addBufferListener(MessageBufferListener l) {
+		int n = this.bufferListeners.length;
+		MessageBufferListener[] listeners = new MessageBufferListener[n + 1];
+		System.arraycopy(this.bufferListeners, 0, listeners, 0, n);
+		listeners[n] = l;
+		this.bufferListeners = listeners;
 	}
 	
 	/** 
@@ -601,19 +678,40 @@ public abstract class MessageRouter {
 	 * @return		A list of all applications that want to receive the message.
 	 */
 	public Collection<Application> getApplications(String ID) {
-		LinkedList<Application>	apps = new LinkedList<Application>();
+		return Collections.unmodifiableList(
+				Arrays.asList(getApplicationArray(ID)));
+	}
+	
+	/**
+	 * Returns all the applications that want to receive messages for the given
+	 * application ID, in the same order as {@link #getApplications(String)}.
+	 * The array is built once per ID and cached until the next 
+	 * {@link #addApplication(Application)}, so it must not be modified.
+	 * 
+	 * @param ID	The application ID or <code>null</code> for all apps.
+	 * @return		The applications that want to receive the message.
+	 */
+	protected Application[] getApplicationArray(String ID) {
+		Application[] apps = this.appsByID.get(ID);
+		if (apps != null) {
+			return apps;
+		}
+		
+		LinkedList<Application>	tmpApps = new LinkedList<Application>();
 		// Applications that match
 		Collection<Application> tmp = this.applications.get(ID);
 		if (tmp != null) {
-			apps.addAll(tmp);
+			tmpApps.addAll(tmp);
 		}
 		// Applications that want to look at all messages
 		if (ID != null) {
 			tmp = this.applications.get(null);
 			if (tmp != null) {
-				apps.addAll(tmp);
+				tmpApps.addAll(tmp);
 			}
 		}
+		apps = tmpApps.toArray(new Application[tmpApps.size()]);
+		this.appsByID.put(ID, apps);
 		return apps;
 	}
 
@@ -49,6 +49,11 @@ public class AllTests {
 		suite.addTestSuite(ScheduledUpdatesQueueTest.class);
 		suite.addTestSuite(MessageTest.class);
 		suite.addTestSuite(ModuleCommunicationBusTest.class);
+		suite.addTestSuite(PartitionUsageHeapTest.class);
+		suite.addTestSuite(BufferEvictionPolicyTest.class);
+		suite.addTestSuite(SimRandomTest.class);
+		suite.addTestSuite(IndexedEventQueueTest.class);
+		suite.addTestSuite(SimContextTest.class);
 		//$JUnit-END$
 		return suite;
 	}
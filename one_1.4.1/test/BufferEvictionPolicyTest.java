@@ -0,0 +1,183 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package test;
+
+import junit.framework.TestCase;
+import applications.BufferEvictionPolicy;
+import applications.DeficitRoundRobinEvictionPolicy;
+import applications.DomainFairShareEvictionPolicy;
+import applications.DomainMap;
+import applications.LruPartitionEvictionPolicy;
+import applications.MaxMinFairShareEvictionPolicy;
+import applications.PartitionRing;
+import applications.WeightedFairShareEvictionPolicy;
+import core.SettingsError;
+
+/**
+ * Tests for the eviction policies of the ResourceManagementBuffer
+ */
+public class BufferEvictionPolicyTest extends TestCase {
+	private static final int NONE = BufferEvictionPolicy.NO_PARTITION;
+	private TestSettings ts;
+	
+	protected void setUp() throws Exception {
+		super.setUp();
+		ts = new TestSettings();
+	}
+	
+	public void testRing() {
+		PartitionRing ring = new PartitionRing();
+		assertTrue(ring.isEmpty());
+		assertEquals(NONE, ring.getHead());
+		
+		ring.addLast(3);
+		ring.addLast(20);
+		ring.addLast(1);
+		assertEquals(3, ring.size());
+		assertEquals(3, ring.getHead());
+		assertEquals(20, ring.getNext(3));
+		assertEquals(3, ring.getNext(1));
+		
+		ring.moveToLast(20);
+		assertEquals(1, ring.getNext(3));
+		assertEquals(20, ring.getNext(1));
+		
+		ring.rotate();
+		assertEquals(1, ring.getHead());
+		
+		ring.remove(1);
+		assertFalse(ring.contains(1));
+		assertEquals(20, ring.getHead());
+		ring.remove(20);
+		ring.remove(3);
+		assertTrue(ring.isEmpty());
+		assertEquals(NONE, ring.getHead());
+	}
+	
+	public void testMaxMinFairShare() {
+		BufferEvictionPolicy p = new MaxMinFairShareEvictionPolicy(ts);
+		assertEquals(NONE, p.selectPartition(NONE));
+		
+		p.messageAdded(1, 100);
+		p.messageAdded(2, 300);
+		p.messageAdded(2, 100);
+		assertEquals(2, p.selectPartition(NONE));
+		assertEquals(1, p.selectPartition(2));
+		
+		p.messageRemoved(2, 300, true);
+		assertEquals(2, p.selectPartition(1)); // tie, but 1 excluded
+		assertEquals(1, p.selectPartition(NONE));
+	}
+	
+	public void testLru() {
+		BufferEvictionPolicy p = new LruPartitionEvictionPolicy(ts);
+		p.messageAdded(1, 100);
+		p.messageAdded(2, 100);
+		p.messageAdded(3, 100);
+		assertEquals(1, p.selectPartition(NONE));
+		
+		p.messageAdded(1, 100);
+		assertEquals(2, p.selectPartition(NONE));
+		assertEquals(3, p.selectPartition(2));
+		
+		p.messageRemoved(2, 100, true);
+		assertEquals(3, p.selectPartition(NONE));
+		p.messageRemoved(3, 100, false);
+		assertEquals(1, p.selectPartition(NONE));
+		assertEquals(NONE, p.selectPartition(1));
+	}
+	
+	public void testDeficitRoundRobin() {
+		ts.putSetting(DeficitRoundRobinEvictionPolicy.QUANTUM, "100");
+		BufferEvictionPolicy p = new DeficitRoundRobinEvictionPolicy(ts);
+		for (int i = 0; i < 3; i++) {
+			p.messageAdded(1, 50);
+			p.messageAdded(2, 150);
+		}
+		
+		// partition 1 drops two messages of 50 bytes with its quantum
+		assertEquals(1, p.selectPartition(NONE));
+		p.messageRemoved(1, 50, true);
+		assertEquals(1, p.selectPartition(NONE));
+		p.messageRemoved(1, 50, true);
+		
+		// then partition 2 gets its turn
+		assertEquals(2, p.selectPartition(NONE));
+		p.messageRemoved(2, 150, true); // deficit -50
+		
+		assertEquals(1, p.selectPartition(NONE));
+		p.messageRemoved(1, 50, true); // partition 1 is empty now
+		
+		// partition 2 needs a turn to catch up with its deficit
+		assertEquals(2, p.selectPartition(NONE));
+		assertEquals(NONE, p.selectPartition(2));
+	}
+	
+	public void testDeficitRoundRobinInvalidQuantum() {
+		ts.putSetting(DeficitRoundRobinEvictionPolicy.QUANTUM, "0");
+		try {
+			new DeficitRoundRobinEvictionPolicy(ts);
+			fail("Zero quantum was accepted");
+		} catch (SettingsError e) {
+			// expected
+		}
+	}
+	
+	public void testWeightedFairShareInvalidWeights() {
+		ts.putSetting(WeightedFairShareEvictionPolicy.SERVER_WEIGHT, "0");
+		try {
+			new WeightedFairShareEvictionPolicy(ts);
+			fail("Zero server weight was accepted");
+		} catch (SettingsError e) {
+			// expected
+		}
+		
+		ts = new TestSettings();
+		ts.putSetting(WeightedFairShareEvictionPolicy.CLIENT_WEIGHT, "-1");
+		try {
+			new WeightedFairShareEvictionPolicy(ts);
+			fail("Negative client weight was accepted");
+		} catch (SettingsError e) {
+			// expected
+		}
+	}
+	
+	public void testDomainMap() {
+		ts.putSetting(DomainMap.DOMAIN_RANGES, "0,10,20");
+		DomainMap map = new DomainMap(ts);
+		assertEquals(3, map.getNrofDomains());
+		assertEquals(0, map.getDomain(0));
+		assertEquals(0, map.getDomain(9));
+		assertEquals(1, map.getDomain(10));
+		assertEquals(2, map.getDomain(20)); // default domain
+		assertEquals(2, map.getDomain(1000));
+	}
+	
+	public void testDomainFairShare() {
+		ts.putSetting(DomainMap.DOMAIN_RANGES, "0,10,20");
+		ts.putSetting(DomainFairShareEvictionPolicy.DOMAIN_SHARES, "1,2");
+		BufferEvictionPolicy p = new DomainFairShareEvictionPolicy(ts);
+		assertEquals(NONE, p.selectPartition(NONE));
+		
+		p.messageAdded(1, 100);
+		p.messageAdded(2, 50);
+		p.messageAdded(11, 200);
+		// domain 0 exceeds its share more than domain 1 (150/1 > 200/2)
+		assertEquals(1, p.selectPartition(NONE));
+		assertEquals(2, p.selectPartition(1));
+		
+		p.messageAdded(12, 200);
+		assertEquals(11, p.selectPartition(NONE));
+		assertEquals(12, p.selectPartition(11));
+		
+		p.messageRemoved(11, 200, true);
+		assertEquals(1, p.selectPartition(NONE));
+		
+		// only partition of the default domain excluded, take next domain
+		p.messageAdded(25, 1000);
+		assertEquals(25, p.selectPartition(NONE));
+		assertEquals(1, p.selectPartition(25));
+	}
+}
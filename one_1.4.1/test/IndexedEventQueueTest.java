@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import junit.framework.TestCase;
+import core.IndexedEventQueue;
+
+/**
+ * Tests for the IndexedEventQueue
+ */
+public class IndexedEventQueueTest extends TestCase {
+	private IndexedEventQueue queue;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		queue = new IndexedEventQueue(3, 10);
+	}
+
+	public void testEmpty() {
+		assertTrue(queue.isEmpty());
+		assertEquals(Double.MAX_VALUE, queue.nextEventsTime());
+		assertEquals(IndexedEventQueue.NO_EVENT, queue.nextEventsType());
+		assertEquals(IndexedEventQueue.NO_EVENT, queue.nextEventsId());
+		assertEquals(Double.MAX_VALUE, queue.getTime(2, 9));
+	}
+
+	public void testOrder() {
+		queue.schedule(0, 5, 30);
+		queue.schedule(2, 1, 10);
+		queue.schedule(1, 9, 20);
+		queue.schedule(1, 0, 40);
+
+		assertEquals(4, queue.size());
+		double[] times = {10, 20, 30, 40};
+		int[] types = {2, 1, 0, 1};
+		int[] ids = {1, 9, 5, 0};
+		for (int i=0; i<times.length; i++) {
+			assertEquals(times[i], queue.nextEventsTime());
+			assertEquals(types[i], queue.nextEventsType());
+			assertEquals(ids[i], queue.nextEventsId());
+			queue.removeNext();
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+	public void testReschedule() {
+		for (int i=0; i<10; i++) {
+			queue.schedule(1, i, 100 + i);
+		}
+		queue.schedule(1, 7, 50); // earlier
+		assertEquals(7, queue.nextEventsId());
+		queue.schedule(1, 7, 200); // later
+		assertEquals(0, queue.nextEventsId());
+		assertEquals(200.0, queue.getTime(1, 7));
+		assertEquals(10, queue.size());
+	}
+
+	public void testCancel() {
+		for (int i=0; i<10; i++) {
+			queue.schedule(0, i, 10 - i);
+		}
+		queue.cancel(0, 9); // the next one
+		queue.cancel(0, 4); // one in the middle
+		queue.cancel(2, 4); // not queued
+		assertEquals(8, queue.size());
+		assertEquals(Double.MAX_VALUE, queue.getTime(0, 4));
+
+		double previous = 0;
+		while (!queue.isEmpty()) {
+			assertTrue(queue.nextEventsTime() >= previous);
+			assertTrue(queue.nextEventsId() != 4);
+			previous = queue.nextEventsTime();
+			queue.removeNext();
+		}
+	}
+
+	public void testClear() {
+		queue.schedule(0, 1, 10);
+		queue.schedule(2, 3, 5);
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertEquals(Double.MAX_VALUE, queue.getTime(2, 3));
+		queue.schedule(2, 3, 7);
+		assertEquals(7.0, queue.nextEventsTime());
+		assertEquals(3, queue.nextEventsId());
+	}
+}
@@ -111,24 +111,13 @@ public class MapBasedMovementTest extends TestCase {
 		p = mbm.getPath();
 		List<Coord> coords = p.getCoords();
 		// should move between n1 and n2
-		for (int i=0; i<coords.size()-1; i+= 2) {
-			assertEquals(c1, coords.get(i));
-			assertEquals(c2, coords.get(i+1));
-		}
+		assertAlternates(coords, c1, c2);
 		
 		n6.addType(1);
 		p = mbm.getPath();
-		coords = p.getCoords();
-		
-		assertEquals(c2, coords.get(0)); // starts from n2
-		
-		// should move route n1-n2-n6-n2-n1-n2 ...
-		for (int i=1; i<coords.size()-4; i+= 4) {
-			assertEquals(c1, coords.get(i));
-			assertEquals(c2, coords.get(i+1));
-			assertEquals(c6, coords.get(i+2));
-			assertEquals(c2, coords.get(i+3));
-		}
+		coords = p.getCoords();
+		// should move back and forth on route n1-n2-n6
+		assertRoute(coords, c1, c2, c6);
 	}
 	
 	public void testManyMapTypeNodes() {
@@ -140,26 +129,51 @@ public class MapBasedMovementTest extends TestCase {
 		Path p = mbm.getPath();
 		List<Coord> coords = p.getCoords();
 		// should move between n1 and n2
-		for (int i=0; i<coords.size()-1; i+= 2) {
-			assertEquals(c2, coords.get(i));
-			assertEquals(c1, coords.get(i+1));
-		}
+		assertAlternates(coords, c1, c2);
 		
 		n6.addType(1); // n6 is both 1 and 2
 		n6.addType(2);
 	
 		p = mbm.getPath();
-		coords = p.getCoords();
-		
-		assertEquals(c2, coords.get(0)); // starts from n2
-		// should move route n1-n2-n6-n2-n1-n2 ...
-		for (int i=1; i<coords.size()-4; i+= 4) {
-			assertEquals(c1, coords.get(i));
-			assertEquals(c2, coords.get(i+1));
-			assertEquals(c6, coords.get(i+2));
-			assertEquals(c2, coords.get(i+3));
+		coords = p.getCoords();
+		// should move back and forth on route n1-n2-n6
+		assertRoute(coords, c1, c2, c6);
+	}
+	
+	/**
+	 * Asserts that the path alternates between two locations, starting from
+	 * the first waypoint (which can be either of them)
+	 */
+	private void assertAlternates(List<Coord> coords, Coord a, Coord b) {
+		Coord start = coords.get(0);
+		assertTrue(start.equals(a) || start.equals(b));
+		Coord other = start.equals(a) ? b : a;
+		for (int i=0; i<coords.size(); i++) {
+			assertEquals(i % 2 == 0 ? start : other, coords.get(i));
+		}
+	}
+	
+	/**
+	 * Asserts that the path moves back and forth on route end1-middle-end2,
+	 * starting from the first waypoint (which can be any of them). Every
+	 * other waypoint is the middle one and the ends between them alternate.
+	 */
+	private void assertRoute(List<Coord> coords, Coord end1, Coord middle,
+			Coord end2) {
+		int middleParity = coords.get(0).equals(middle) ? 0 : 1;
+		Coord previousEnd = null;
+		for (int i=0; i<coords.size(); i++) {
+			Coord c = coords.get(i);
+			if (i % 2 == middleParity) {
+				assertEquals(middle, c);
+				continue;
+			}
+			assertTrue(c.equals(end1) || c.equals(end2));
+			if (previousEnd != null) {
+				assertFalse(c.equals(previousEnd));
+			}
+			previousEnd = c;
 		}
-
 	}
 	
 	
@@ -209,24 +223,48 @@ public class MapBasedMovementTest extends TestCase {
 		h1 = setupHost();
 		loc = h1.getLocation().clone();
 		for (int i=0; i<NROF; i++ ) {
+			Path path = h1.getPath();
 			h1.move(2);
 			// should move 2 steps away from previous location
-			double dist = loc.distance(h1.getLocation());
-			assertTrue(dist == 2 || dist == 0 || dist == Math.sqrt(2));
+			assertSteps(h1, path, loc, 2);
 			loc = h1.getLocation().clone();
 		}
 		
 		h1 = setupHost();
 		loc = h1.getLocation().clone();
 		for (int i=0; i<NROF; i++ ) {
+			Path path = h1.getPath();
 			h1.move(3);
 			// should move 3 steps away from previous location
-			double dist = loc.distance(h1.getLocation());
-			assertTrue(dist == 3 || dist == 1 || dist == Math.sqrt(1+2*2));
+			assertSteps(h1, path, loc, 3);
 			loc = h1.getLocation().clone();
 		}
 	}
 	
+	/**
+	 * Asserts that the host moved the given number of 1 meter steps along
+	 * the (grid) map from the previous location. If the path the host
+	 * followed ended during the move, the rest of the movement is lost and
+	 * the host must be at the last waypoint of that path.
+	 */
+	private void assertSteps(DTNHost h, Path prevPath, Coord prevLoc, 
+			int steps) {
+		Coord loc = h.getLocation();
+		int dx = (int)Math.abs(loc.getX() - prevLoc.getX());
+		int dy = (int)Math.abs(loc.getY() - prevLoc.getY());
+		assertEquals(loc.distance(prevLoc), Math.sqrt(dx*dx + dy*dy));
+		// can't get further than the steps
+		assertTrue(dx + dy <= steps);
+		if (h.getPath() == null && prevPath != null) {
+			List<Coord> coords = prevPath.getCoords();
+			assertEquals(coords.get(coords.size() - 1), loc);
+		}
+		else if (h.getPath() != null) {
+			// every step changes the parity of the location
+			assertEquals(0, (steps - dx - dy) % 2);
+		}
+	}
+	
 	private DTNHost setupHost() {
 		TestUtils utils = new TestUtils(null, null, s);
 		DTNHost h1 = utils.createHost(mbm, null);
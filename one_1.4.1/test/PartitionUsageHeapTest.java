@@ -0,0 +1,77 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package test;
+
+import junit.framework.TestCase;
+import applications.PartitionUsageHeap;
+
+/**
+ * Tests for the PartitionUsageHeap
+ */
+public class PartitionUsageHeapTest extends TestCase {
+	private PartitionUsageHeap heap;
+	
+	protected void setUp() throws Exception {
+		super.setUp();
+		heap = new PartitionUsageHeap();
+	}
+	
+	public void testEmpty() {
+		assertEquals(0, heap.size());
+		assertEquals(-1, heap.getHighest());
+		assertEquals(-1, heap.getSecondHighest());
+		assertEquals(0, heap.getUsage(3));
+	}
+	
+	public void testHighest() {
+		heap.addUsage(5, 100);
+		heap.addUsage(1, 300);
+		heap.addUsage(42, 200);
+		heap.addUsage(7, 50);
+		
+		assertEquals(4, heap.size());
+		assertEquals(1, heap.getHighest());
+		assertEquals(42, heap.getSecondHighest());
+		
+		heap.addUsage(7, 400); // 7 has 450 now
+		assertEquals(7, heap.getHighest());
+		assertEquals(1, heap.getSecondHighest());
+		
+		heap.addUsage(7, -450);
+		assertEquals(0, heap.getUsage(7));
+		assertEquals(1, heap.getHighest());
+		assertEquals(42, heap.getSecondHighest());
+	}
+	
+	public void testTies() {
+		heap.addUsage(9, 100);
+		heap.addUsage(3, 100);
+		heap.addUsage(6, 100);
+		
+		assertEquals(3, heap.getHighest());
+		assertEquals(6, heap.getSecondHighest());
+	}
+	
+	public void testRemove() {
+		for (int i=0; i<20; i++) {
+			heap.addUsage(i, i * 10);
+		}
+		heap.remove(19);
+		heap.remove(0);
+		heap.remove(10);
+		heap.remove(100); // not in the heap
+		
+		assertEquals(17, heap.size());
+		assertFalse(heap.contains(19));
+		assertEquals(18, heap.getHighest());
+		assertEquals(17, heap.getSecondHighest());
+		
+		for (int i=18; i>10; i--) {
+			assertEquals(i, heap.getHighest());
+			heap.remove(i);
+		}
+		assertEquals(9, heap.getHighest());
+	}
+}
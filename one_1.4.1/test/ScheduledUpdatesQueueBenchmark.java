@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import input.ScheduledUpdatesQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Microbenchmark of the ScheduledUpdatesQueue against the sorted list
+ * implementation it replaced. Simulates objects that request updates at
+ * random times in the near future (on a 0.1 second grid, so some times
+ * are requested more than once) while the updates are taken in order.
+ * The equal times run has all the objects request an update for the same
+ * time after every update, which the queues keep as a single update.
+ * Usage: ScheduledUpdatesQueueBenchmark [nrofPendingUpdates ...]
+ */
+public class ScheduledUpdatesQueueBenchmark {
+	private static final int NROF_OPERATIONS = 200000;
+	private static final int NROF_ROUNDS = 3;
+
+	public static void main(String[] args) {
+		int[] sizes = {100, 1000, 10000};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i=0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		/* warm up the JIT compiler */
+		run(new HeapQueue(), 100);
+		run(new ListQueue(), 100);
+
+		for (int size : sizes) {
+			long heapTime = Long.MAX_VALUE;
+			long listTime = Long.MAX_VALUE;
+			double heapSum = 0;
+			double listSum = 0;
+			for (int r=0; r < NROF_ROUNDS; r++) { // best of the rounds
+				long start = System.nanoTime();
+				heapSum = run(new HeapQueue(), size);
+				heapTime = Math.min(heapTime, System.nanoTime() - start);
+				start = System.nanoTime();
+				listSum = run(new ListQueue(), size);
+				listTime = Math.min(listTime, System.nanoTime() - start);
+			}
+			if (heapSum != listSum) {
+				throw new AssertionError("Different update times with " +
+						size + " pending updates");
+			}
+			System.out.printf("%6d pending: heap %8.2f ms, list %8.2f ms%n",
+					size, heapTime / 1e6, listTime / 1e6);
+		}
+		
+		for (int size : sizes) {
+			long heapTime = Long.MAX_VALUE;
+			long listTime = Long.MAX_VALUE;
+			for (int r=0; r < NROF_ROUNDS; r++) {
+				long start = System.nanoTime();
+				runEqualTimes(new HeapQueue(), size);
+				heapTime = Math.min(heapTime, System.nanoTime() - start);
+				start = System.nanoTime();
+				runEqualTimes(new ListQueue(), size);
+				listTime = Math.min(listTime, System.nanoTime() - start);
+			}
+			System.out.printf("%6d objects, equal times: heap %8.2f ms, " +
+					"list %8.2f ms%n", size, heapTime / 1e6, listTime / 1e6);
+		}
+	}
+	
+	/**
+	 * Has the given number of objects request an update for the same time
+	 * after every taken update and checks that the requests are merged to
+	 * one update per time
+	 */
+	private static void runEqualTimes(Queue q, int nrofObjects) {
+		double now = 0;
+		for (int i=0; i < NROF_OPERATIONS / nrofObjects + 1; i++) {
+			for (int j=0; j < nrofObjects; j++) {
+				q.addUpdate(now + 1.0);
+			}
+			now = q.nextEventsTime();
+			q.nextEvent();
+			if (q.nextEventsTime() != Double.MAX_VALUE) {
+				throw new AssertionError("Equal update times were not " +
+						"merged with " + nrofObjects + " objects");
+			}
+		}
+	}
+
+	/**
+	 * Keeps the given number of updates pending: adds one update and takes
+	 * the next one for every operation
+	 * @return Sum of the taken update times for checking the results
+	 */
+	private static double run(Queue q, int nrofPending) {
+		Random rng = new Random(nrofPending);
+		double now = 0;
+		double sum = 0;
+		for (int i=0; i < nrofPending; i++) {
+			q.addUpdate(now + rng.nextInt(10 * nrofPending) / 10.0);
+		}
+		for (int i=0; i < NROF_OPERATIONS; i++) {
+			q.addUpdate(now + rng.nextInt(10 * nrofPending) / 10.0);
+			now = q.nextEventsTime();
+			q.nextEvent();
+			sum += now;
+		}
+		return sum;
+	}
+
+	/** The operations the benchmark uses */
+	private interface Queue {
+		public void addUpdate(double simTime);
+		public double nextEventsTime();
+		public void nextEvent();
+	}
+
+	/** The ScheduledUpdatesQueue */
+	private static class HeapQueue implements Queue {
+		private ScheduledUpdatesQueue q = new ScheduledUpdatesQueue();
+		public void addUpdate(double simTime) {
+			q.addUpdate(simTime);
+		}
+		public double nextEventsTime() {
+			return q.nextEventsTime();
+		}
+		public void nextEvent() {
+			q.nextEvent();
+		}
+	}
+
+	/** The sorted list implementation the ScheduledUpdatesQueue replaced */
+	private static class ListQueue implements Queue {
+		private double next = Double.MAX_VALUE;
+		private List<Double> updates = new ArrayList<Double>();
+
+		public void addUpdate(double simTime) {
+			if (simTime == next) {
+				return;
+			}
+			else if (next > simTime) {
+				putToQueue(next);
+				next = simTime;
+			}
+			else {
+				putToQueue(simTime);
+			}
+		}
+
+		private void putToQueue(double t) {
+			for (int i=0, n=updates.size(); i<n; i++) {
+				double time = updates.get(i);
+				if (time == t) {
+					return;
+				}
+				else if (t < time) {
+					updates.add(i, t);
+					return;
+				}
+			}
+			updates.add(t);
+		}
+
+		public double nextEventsTime() {
+			return next;
+		}
+
+		public void nextEvent() {
+			next = updates.size() == 0 ? Double.MAX_VALUE : updates.remove(0);
+		}
+	}
+}
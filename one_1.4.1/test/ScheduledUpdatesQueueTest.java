@@ -5,6 +5,10 @@
 package test;
 
 import input.ScheduledUpdatesQueue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
 import junit.framework.TestCase;
 import core.SimClock;
 
@@ -107,4 +111,33 @@ public class ScheduledUpdatesQueueTest extends TestCase {
 		assertEquals(5.0, suq.nextEvent().getTime());
 		assertEquals(8.0, suq.nextEvent().getTime());
 	}
+	
+	public void testManyDuplicateValues() {
+		Random rng = new Random(1);
+		TreeSet<Double> expected = new TreeSet<Double>();
+		double now = 0;
+		
+		for (int i=0; i < 10000; i++) { // many requests for few times
+			double time = now + rng.nextInt(50) / 10.0;
+			suq.addUpdate(time);
+			expected.add(time);
+			if (i % 3 == 0) {
+				now = expected.pollFirst();
+				assertEquals(now, suq.nextEvent().getTime());
+			}
+		}
+		
+		while (!expected.isEmpty()) {
+			assertEquals(expected.pollFirst(), suq.nextEvent().getTime());
+		}
+		assertEquals(MAX, suq.nextEvent().getTime());
+	}
+	
+	public void testZeroAndNegativeZeroMerged() {
+		suq.addUpdate(0.0);
+		suq.addUpdate(-0.0);
+		
+		assertEquals(0.0, suq.nextEvent().getTime());
+		assertEquals(MAX, suq.nextEvent().getTime());
+	}
 }
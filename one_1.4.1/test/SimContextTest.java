@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import junit.framework.TestCase;
+import core.Message;
+import core.Settings;
+import core.SimClock;
+import core.SimContext;
+
+/**
+ * Tests for the SimContext
+ */
+public class SimContextTest extends TestCase {
+	private SimContext context;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		context = new SimContext();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		SimContext.setCurrent(null);
+	}
+
+	public void testCurrentContext() {
+		SimContext defaultContext = SimContext.getCurrent();
+		SimContext.setCurrent(context);
+		assertSame(context, SimContext.getCurrent());
+		assertSame(context.getClock(), SimClock.getInstance());
+		SimContext.setCurrent(null);
+		assertSame(defaultContext, SimContext.getCurrent());
+	}
+
+	public void testSeparateClocks() {
+		SimClock.getInstance().setTime(10);
+		SimContext.setCurrent(context);
+		assertEquals(0.0, SimClock.getTime());
+		SimClock.getInstance().advance(5);
+		assertEquals(5.0, SimClock.getTime());
+		SimContext.setCurrent(null);
+		assertEquals(10.0, SimClock.getTime());
+		SimClock.reset();
+	}
+
+	public void testSeparateMessageIds() {
+		SimContext.setCurrent(context);
+		assertEquals(0, new Message(null, null, "M1", 1).getUniqueId());
+		assertEquals(1, new Message(null, null, "M2", 1).getUniqueId());
+		SimContext.setCurrent(new SimContext());
+		assertEquals(0, new Message(null, null, "M3", 1).getUniqueId());
+		SimContext.setCurrent(context);
+		assertEquals(2, new Message(null, null, "M4", 1).getUniqueId());
+	}
+
+	public void testContextPerThread() throws InterruptedException {
+		SimContext.setCurrent(context);
+		SimClock.getInstance().setTime(3);
+		final double[] otherTime = new double[1];
+		final SimContext other = new SimContext();
+		Thread t = new Thread() {
+			public void run() {
+				SimContext.setCurrent(other);
+				SimClock.getInstance().setTime(7);
+				otherTime[0] = SimClock.getTime();
+			}
+		};
+		t.start();
+		t.join();
+		assertEquals(7.0, otherTime[0]);
+		assertEquals(7.0, other.getClock().getClockTime());
+		assertEquals(3.0, SimClock.getTime());
+	}
+
+	public void testSeparateModuleStates() {
+		SimContext.setCurrent(context);
+		SimContext.getCurrent().setModuleState("Test", "a");
+		assertEquals("a", SimContext.getCurrent().getModuleState("Test"));
+		assertNull(context.newRun(1).getModuleState("Test"));
+		SimContext.setCurrent(null);
+		assertNull(SimContext.getCurrent().getModuleState("Test"));
+		context.setModuleState("Test", null);
+		assertNull(context.getModuleState("Test"));
+	}
+
+	public void testNewRun() {
+		SimContext.setCurrent(context);
+		TestSettings ts = new TestSettings();
+		ts.putSetting("Test.value", "[a;b;c]");
+		SimClock.getInstance().setTime(100);
+
+		SimContext.setCurrent(context.newRun(1));
+		assertEquals(0.0, SimClock.getTime());
+		assertEquals("b", new Settings("Test").getSetting("value"));
+		SimContext.setCurrent(context);
+		assertEquals("a", new Settings("Test").getSetting("value"));
+	}
+}
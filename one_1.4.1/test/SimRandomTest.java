@@ -0,0 +1,75 @@
+/* 
+ * Copyright 2012 Dominik Schürmann <dominik@dominikschuermann.de>
+ * Released under GPLv3. See LICENSE.txt for details. 
+ */
+package test;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import movement.MovementModel;
+import core.SimRandom;
+
+/**
+ * Tests for the SimRandom streams
+ */
+public class SimRandomTest extends TestCase {
+	private static final String MODULE = "TestModule";
+	private TestSettings ts;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ts = new TestSettings();
+		SimRandom.reset();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		new TestSettings(); // removes the seed setting
+		SimRandom.reset();
+	}
+
+	public void testSameStreamSameNumbers() {
+		Random r1 = SimRandom.getRandom(MODULE, 3);
+		Random r2 = SimRandom.getRandom(MODULE, 3);
+		for (int i=0; i<10; i++) {
+			assertEquals(r1.nextLong(), r2.nextLong());
+		}
+	}
+
+	public void testDifferentStreams() {
+		long seed = SimRandom.getSeed(MODULE, 0);
+		assertTrue(seed != SimRandom.getSeed(MODULE, 1));
+		assertTrue(seed != SimRandom.getSeed("OtherModule", 0));
+	}
+
+	public void testSeedSetting() {
+		long seed = SimRandom.getSeed(MODULE, 0);
+		ts.putSetting(MovementModel.MOVEMENT_MODEL_NS + "." + 
+				MovementModel.RNG_SEED, "2");
+		SimRandom.reset();
+		assertTrue(seed != SimRandom.getSeed(MODULE, 0));
+	}
+
+	public void testNextRandom() {
+		long first = SimRandom.nextRandom(MODULE).nextLong();
+		long second = SimRandom.nextRandom(MODULE).nextLong();
+		assertEquals(SimRandom.getRandom(MODULE, 0).nextLong(), first);
+		assertEquals(SimRandom.getRandom(MODULE, 1).nextLong(), second);
+
+		/* streams of other modules are counted separately */
+		assertEquals(SimRandom.getRandom("OtherModule", 0).nextLong(), 
+				SimRandom.nextRandom("OtherModule").nextLong());
+
+		/* counting starts again after reset */
+		SimRandom.reset();
+		assertEquals(first, SimRandom.nextRandom(MODULE).nextLong());
+	}
+
+	public void testReseed() {
+		Random rng = new Random();
+		SimRandom.reseed(rng, MODULE, 5);
+		assertEquals(SimRandom.getRandom(MODULE, 5).nextDouble(), 
+				rng.nextDouble());
+	}
+}
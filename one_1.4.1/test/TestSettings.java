@@ -43,7 +43,7 @@ public class TestSettings extends core.Settings {
 	}
 	
 	public static void init(String propFile) throws SettingsError {
-		props = new Properties();
+		setProperties(new Properties());
 	}
 	
 	/**
@@ -52,7 +52,7 @@ public class TestSettings extends core.Settings {
 	 * @param value
 	 */
 	public void putSetting(String key, String value) {
-		if (props == null) {
+		if (getProperties() == null) {
 			try {
 				init(null);
 			} catch (SettingsError e) {
@@ -60,7 +60,7 @@ public class TestSettings extends core.Settings {
 				System.exit(-1);
 			}
 		}
-		props.put(key, value);
+		getProperties().put(key, value);
 	}	
 
 }
\ No newline at end of file
@@ -5,15 +5,20 @@
 package test;
 
 import input.EventQueue;
+import input.ExternalEvent;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import junit.framework.TestCase;
+import movement.MovementModel;
+import movement.RandomWaypoint;
+import core.Coord;
 import core.DTNHost;
 import core.ModuleCommunicationBus;
 import core.NetworkInterface;
 import core.SimClock;
+import core.SimContext;
 import core.UpdateListener;
 import core.World;
 
@@ -98,6 +103,134 @@ public class WorldTest extends TestCase {
 
 	}
 	
+	public void testParallelUpdate() {
+		TestSettings ts = new TestSettings();
+		ts.putSetting(World.SETTINGS_NS + "." + World.UPDATE_THREADS_S, "4");
+		TestScenario scen = new TestScenario();
+		this.world = new World(scen.getHosts(), scen.getWorldSizeX(), 
+				scen.getWorldSizeY(), scen.getUpdateInterval(), 
+				scen.getUpdateListeners(), scen.simulateConnections(), 
+				scen.getExternalEvents());
+		
+		int nrofRounds = 100;
+		for (int i=0; i<nrofRounds; i++) {
+			world.update();
+		}
+		
+		assertEquals(nrofRounds * upInterval, SimClock.getTime(), TIME_DELTA);
+		assertNrofUpdates(nrofRounds);
+	}
+	
+	public void testParallelMovementMatchesSequential() {
+		List<Coord> sequential = moveRandomWaypointHosts(1);
+		List<Coord> parallel = moveRandomWaypointHosts(4);
+		assertEquals(sequential, parallel);
+	}
+	
+	/**
+	 * Moves random waypoint hosts in a new simulation context and returns
+	 * their final locations
+	 * @param updateThreads Number of update threads to use
+	 * @return Locations of the hosts in address order
+	 */
+	private List<Coord> moveRandomWaypointHosts(int updateThreads) {
+		SimContext.setCurrent(new SimContext());
+		try {
+			TestSettings ts = new TestSettings();
+			ts.putSetting(World.SETTINGS_NS + "." + World.UPDATE_THREADS_S, 
+					"" + updateThreads);
+			ts.putSetting(MovementModel.SPEED, "0.5,1.5");
+			ts.putSetting(MovementModel.WAIT_TIME, "0,10");
+			MovementModel proto = new RandomWaypoint(ts);
+			TestUtils utils = new TestUtils(null, null, ts);
+			List<DTNHost> hosts = new ArrayList<DTNHost>();
+			for (int i=0; i<50; i++) {
+				hosts.add(utils.createHost(proto, null));
+			}
+			
+			World w = new World(hosts, 1000, 1000, upInterval, 
+					new ArrayList<UpdateListener>(), false, 
+					new ArrayList<EventQueue>());
+			for (int i=0; i<1000; i++) {
+				w.update();
+			}
+			w.close();
+			
+			List<Coord> locations = new ArrayList<Coord>();
+			for (DTNHost h : hosts) {
+				locations.add(h.getLocation().clone());
+			}
+			return locations;
+		} finally {
+			SimContext.setCurrent(null);
+		}
+	}
+	
+	public void testEventBatching() {
+		TestSettings ts = new TestSettings();
+		ts.putSetting(World.SETTINGS_NS + "." + World.BATCH_EVENTS_S, "true");
+		TestEventQueue eq = new TestEventQueue();
+		eq.events.add(new TouchingEvent(0.05, 0, 1));
+		eq.events.add(new TouchingEvent(0.05, 1, 2));
+		eq.events.add(new TouchingEvent(0.15, 3, 4));
+		eQueues.add(eq);
+		TestScenario scen = new TestScenario();
+		this.world = new World(scen.getHosts(), scen.getWorldSizeX(), 
+				scen.getWorldSizeY(), scen.getUpdateInterval(), 
+				scen.getUpdateListeners(), scen.simulateConnections(), 
+				scen.getExternalEvents());
+		
+		world.update();
+		/* one update for the batch of touched hosts and one at the end */
+		assertEquals(2, testHosts.get(0).nrofUpdate);
+		assertEquals(2, testHosts.get(1).nrofUpdate);
+		assertEquals(2, testHosts.get(2).nrofUpdate);
+		assertEquals(1, testHosts.get(3).nrofUpdate);
+		
+		world.update();
+		assertEquals(3, testHosts.get(3).nrofUpdate);
+		assertEquals(3, testHosts.get(4).nrofUpdate);
+		assertEquals(2, testHosts.get(5).nrofUpdate);
+		
+		/* events that may touch any host update all of them */
+		world.scheduleUpdate(0.25);
+		world.update();
+		assertEquals(4, testHosts.get(5).nrofUpdate);
+	}
+	
+	/** Event that touches two hosts (by index in the test host list) */
+	private class TouchingEvent extends ExternalEvent {
+		private int first;
+		private int second;
+		
+		public TouchingEvent(double time, int first, int second) {
+			super(time);
+			this.first = first;
+			this.second = second;
+		}
+		
+		@Override
+		public boolean markTouchedHosts(World world) {
+			world.markHostTouched(first);
+			world.markHostTouched(second);
+			return true;
+		}
+	}
+	
+	/** Event queue that returns the events of a list in order */
+	private class TestEventQueue implements EventQueue {
+		private List<ExternalEvent> events = new ArrayList<ExternalEvent>();
+		
+		public ExternalEvent nextEvent() {
+			return events.remove(0);
+		}
+		
+		public double nextEventsTime() {
+			return events.isEmpty() ? Double.MAX_VALUE : 
+				events.get(0).getTime();
+		}
+	}
+	
 
 	/** Dummy scenario for providing test values for the World */ 
 	private class TestScenario extends core.SimScenario {